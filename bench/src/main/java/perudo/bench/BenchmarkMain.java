@@ -0,0 +1,28 @@
+package perudo.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import perudo.core.FaceCounting;
+
+// Build:  mvn -B package -pl bench -am
+// Run:    java -jar bench/target/benchmarks.jar [benchmark regex]
+// Every run attaches the GC profiler, so results include gc.alloc.rate.norm (bytes/op).
+public final class BenchmarkMain {
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder builder = new OptionsBuilder();
+        if (args.length == 0) {
+            builder.include("perudo\\..*Benchmark");
+            // without a -Psimd build the Vector API benchmark can only fail
+            if (FaceCounting.class.getResource("VectorFaceCounting.class") == null) builder.exclude("FaceCountingSimdBenchmark");
+        } else {
+            for (String a : args) builder.include(a);
+        }
+        Options opts = builder.addProfiler(GCProfiler.class).build();
+        new Runner(opts).run();
+    }
+}
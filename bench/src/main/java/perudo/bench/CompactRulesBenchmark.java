@@ -0,0 +1,57 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.core.Bid;
+import perudo.core.CompactRules;
+import perudo.core.CompactState;
+import perudo.core.RngStreams;
+import perudo.core.RoundContext;
+import perudo.players.Player;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Same table as RuleEngineBenchmark, resolved on the compact state; copyFrom restores it each call.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactRulesBenchmark {
+    @Param({"2", "4", "6", "9"})
+    public int players;
+
+    @Param({"1", "3", "5"})
+    public int dice;
+
+    private CompactState saved;
+    private CompactState state;
+
+    @Setup
+    public void setUp() {
+        List<Player> table = Tables.bots(players, dice, new RngStreams(42));
+        Tables.rollAll(table);
+        RoundContext ctx = new RoundContext(table);
+        ctx.setBid(Bid.of(Math.max(1, players * dice / 3), 5), 0);
+        saved = CompactState.of(ctx);
+        state = saved.copy();
+    }
+
+    @Benchmark
+    public int resolveLiar() {
+        state.copyFrom(saved);
+        return CompactRules.resolveLiar(state, 1);
+    }
+
+    @Benchmark
+    public boolean resolveExact() {
+        state.copyFrom(saved);
+        return CompactRules.resolveExact(state, 1);
+    }
+
+    @Benchmark
+    public CompactState copy() {
+        return saved.copy();
+    }
+}
@@ -0,0 +1,31 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.core.DiceCup;
+import perudo.core.RngStreams;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiceCupBenchmark {
+    @Param({"1", "3", "5"})
+    public int dice;
+
+    private DiceCup cup;
+
+    @Setup
+    public void setUp() {
+        cup = new DiceCup(dice, new RngStreams(42).forCup(0));
+    }
+
+    @Benchmark
+    public int roll() {
+        cup.roll(dice);
+        return cup.countFace(1);
+    }
+}
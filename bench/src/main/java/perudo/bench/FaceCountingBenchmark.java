@@ -0,0 +1,68 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.core.FaceCounting;
+import perudo.core.RngStreams;
+import perudo.core.RoundContext;
+import perudo.players.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Face totals for many tables at once: packed array (scalar) versus one RoundContext recount per table.
+// Runs on any build; the Vector API variant is FaceCountingSimdBenchmark.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FaceCountingBenchmark {
+    @Param({"1", "100", "1000"})
+    public int tables;
+
+    @Param({"4"})
+    public int players;
+
+    @Param({"5"})
+    public int dice;
+
+    private byte[] faces;
+    private final int[] totals = new int[7];
+    private List<RoundContext> contexts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        faces = new byte[tables * players * dice];
+        for (int i = 0; i < faces.length; i++) faces[i] = (byte) (1 + rnd.nextInt(6));
+
+        contexts = new ArrayList<>(tables);
+        RngStreams rng = new RngStreams(42);
+        for (int t = 0; t < tables; t++) {
+            List<Player> table = Tables.bots(players, dice, rng.forMatch(t));
+            Tables.rollAll(table);
+            contexts.add(new RoundContext(table));
+        }
+    }
+
+    @Benchmark
+    public int[] packedScalar() {
+        java.util.Arrays.fill(totals, 0);
+        FaceCounting.countScalar(faces, 0, faces.length, totals);
+        return totals;
+    }
+
+    // Current path: each table aggregates its cups' histograms.
+    @Benchmark
+    public int roundContexts() {
+        int sum = 0;
+        for (RoundContext ctx : contexts) {
+            ctx.invalidateDiceTotals();
+            sum += ctx.countMatchesTotal(2);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,44 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.core.FaceCounting;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The packed face count through the Vector API; same tables as FaceCountingBenchmark.packedScalar.
+// Needs a -Psimd build, so BenchmarkMain leaves it out of the default run otherwise.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FaceCountingSimdBenchmark {
+    @Param({"1", "100", "1000"})
+    public int tables;
+
+    @Param({"4"})
+    public int players;
+
+    @Param({"5"})
+    public int dice;
+
+    private byte[] faces;
+    private final int[] totals = new int[7];
+
+    @Setup
+    public void setUp() {
+        if (!FaceCounting.simdEnabled()) throw new IllegalStateException("build with mvn -Psimd and run with --add-modules jdk.incubator.vector");
+        SplittableRandom rnd = new SplittableRandom(42);
+        faces = new byte[tables * players * dice];
+        for (int i = 0; i < faces.length; i++) faces[i] = (byte) (1 + rnd.nextInt(6));
+    }
+
+    @Benchmark
+    public int[] packedSimd() {
+        java.util.Arrays.fill(totals, 0);
+        FaceCounting.count(faces, 0, faces.length, totals);
+        return totals;
+    }
+}
@@ -0,0 +1,57 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.core.Game;
+import perudo.core.RngStreams;
+import perudo.players.Player;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    @Param({"2", "4", "6", "9"})
+    public int players;
+
+    @Param({"1", "3", "5"})
+    public int dice;
+
+    private RngStreams rng;
+    private long matchIndex;
+
+    // Reported next to the match rate as rounds per second.
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rounds {
+        public long rounds;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            rounds = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        rng = new RngStreams(42);
+    }
+
+    private Game newMatch() {
+        RngStreams match = rng.forMatch(matchIndex++);
+        List<Player> table = Tables.bots(players, dice, match);
+        return Game.createHeadless(table, dice, match.forTable().nextInt(players));
+    }
+
+    @Benchmark
+    public Player playMatch(Rounds counter) {
+        Game game = newMatch();
+        Player winner = game.play();
+        counter.rounds += game.roundsPlayed();
+        return winner;
+    }
+}
@@ -0,0 +1,54 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.core.Bid;
+import perudo.core.RngStreams;
+import perudo.core.RoundContext;
+import perudo.players.Player;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundContextBenchmark {
+    @Param({"2", "4", "6", "9"})
+    public int players;
+
+    @Param({"1", "3", "5"})
+    public int dice;
+
+    private RoundContext ctx;
+    private Bid bid;
+    private Player self;
+
+    @Setup
+    public void setUp() {
+        List<Player> table = Tables.bots(players, dice, new RngStreams(42));
+        Tables.rollAll(table);
+        ctx = new RoundContext(table);
+        bid = Bid.of(Math.max(1, players * dice / 3), 4);
+        self = table.get(0);
+    }
+
+    // First count after a roll: aggregates every alive cup.
+    @Benchmark
+    public int countMatchesTotalAfterRoll() {
+        ctx.invalidateDiceTotals();
+        return ctx.countMatchesTotal(bid);
+    }
+
+    @Benchmark
+    public int countMatchesTotal() {
+        return ctx.countMatchesTotal(bid);
+    }
+
+    @Benchmark
+    public int countMatchesInCup() {
+        return ctx.countMatchesInCup(self.cup(), bid.face());
+    }
+}
@@ -0,0 +1,68 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.core.Bid;
+import perudo.core.RngStreams;
+import perudo.core.RoundContext;
+import perudo.core.RuleEngine;
+import perudo.players.Player;
+import perudo.ui.SilentUI;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleEngineBenchmark {
+    @Param({"2", "4", "6", "9"})
+    public int players;
+
+    @Param({"1", "3", "5"})
+    public int dice;
+
+    private List<Player> table;
+    private RoundContext ctx;
+    private RuleEngine rules;
+    private int[] savedCounts;
+
+    @Setup
+    public void setUp() {
+        table = Tables.bots(players, dice, new RngStreams(42));
+        Tables.rollAll(table);
+        rules = new RuleEngine(dice);
+        ctx = new RoundContext(table);
+        ctx.bind();
+        ctx.setBid(Bid.of(Math.max(1, players * dice / 3), 5), 0);
+        savedCounts = new int[players];
+        for (int i = 0; i < players; i++) savedCounts[i] = table.get(i).diceCount();
+    }
+
+    @Benchmark
+    public int resolveLiar() {
+        ctx.invalidateDiceTotals();
+        rules.resolveLiar(ctx, 1, SilentUI.INSTANCE);
+        restoreDice();
+        return ctx.nextStarterIndex();
+    }
+
+    @Benchmark
+    public int resolveExact() {
+        ctx.invalidateDiceTotals();
+        rules.resolveExact(ctx, 1, SilentUI.INSTANCE);
+        restoreDice();
+        return ctx.nextStarterIndex();
+    }
+
+    // Resolution changes one player's dice count; put it back so every call sees the same table.
+    private void restoreDice() {
+        for (int i = 0; i < players; i++) {
+            Player p = table.get(i);
+            while (p.diceCount() < savedCounts[i]) p.gainDieUpToMax();
+            while (p.diceCount() > savedCounts[i]) p.loseDie();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package perudo.bench;
+
+import org.openjdk.jmh.annotations.*;
+import perudo.ai.SimpleBotStrategy;
+import perudo.core.Action;
+import perudo.core.Bid;
+import perudo.core.RngStreams;
+import perudo.core.RoundContext;
+import perudo.players.Player;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimpleBotStrategyBenchmark {
+    @Param({"2", "4", "6", "9"})
+    public int players;
+
+    @Param({"1", "3", "5"})
+    public int dice;
+
+    private SimpleBotStrategy strategy;
+    private RoundContext opening;
+    private RoundContext bidding;
+    private Player self;
+
+    @Setup
+    public void setUp() {
+        RngStreams rng = new RngStreams(42);
+        List<Player> table = Tables.bots(players, dice, rng);
+        Tables.rollAll(table);
+        strategy = new SimpleBotStrategy(rng.forBot(99));
+        self = table.get(0);
+        opening = new RoundContext(table);
+        bidding = new RoundContext(table);
+        bidding.setBid(Bid.of(Math.max(1, players * dice / 3), 3), table.size() - 1);
+    }
+
+    @Benchmark
+    public Action chooseOpening() {
+        return strategy.choose(self, opening);
+    }
+
+    @Benchmark
+    public Action chooseResponse() {
+        return strategy.choose(self, bidding);
+    }
+}
@@ -0,0 +1,29 @@
+package perudo.bench;
+
+import perudo.ai.SimpleBotStrategy;
+import perudo.core.DiceCup;
+import perudo.core.RngStreams;
+import perudo.players.BotPlayer;
+import perudo.players.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Tables {
+    private Tables() {}
+
+    public static List<Player> bots(int players, int dicePerPlayer, RngStreams rng) {
+        List<Player> res = new ArrayList<>(players);
+        for (int seat = 0; seat < players; seat++) {
+            res.add(new BotPlayer("Bot" + (seat + 1), new DiceCup(dicePerPlayer, rng.forCup(seat)),
+                    new SimpleBotStrategy(rng.forBot(seat))));
+        }
+        return res;
+    }
+
+    public static void rollAll(List<Player> players) {
+        for (Player p : players) {
+            if (p.isAlive()) p.roll();
+        }
+    }
+}
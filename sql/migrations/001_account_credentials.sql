@@ -0,0 +1,10 @@
+-- Applied by hand, in file order, on top of the existing perudo schema
+-- (accounts, roles, account_roles, bonus_catalog, bonus_categories, account_bonuses).
+
+-- Password hashes for logging in over the network front end (PBKDF2-HMAC-SHA256).
+CREATE TABLE IF NOT EXISTS account_credentials (
+    account_id    BIGINT PRIMARY KEY REFERENCES accounts(id) ON DELETE CASCADE,
+    password_hash BYTEA  NOT NULL,
+    salt          BYTEA  NOT NULL,
+    iterations    INT    NOT NULL
+);
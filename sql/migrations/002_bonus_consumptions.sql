@@ -0,0 +1,8 @@
+-- Bonus uses journaled during a match, one row per applied journal entry (see BonusJournal).
+-- A row exists only if its decrement of account_bonuses went through, so replays skip it.
+CREATE TABLE IF NOT EXISTS bonus_consumptions (
+    entry_id    VARCHAR(36) PRIMARY KEY,
+    account_id  BIGINT      NOT NULL,
+    bonus_type  VARCHAR(50) NOT NULL,
+    consumed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
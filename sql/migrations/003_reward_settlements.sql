@@ -0,0 +1,9 @@
+-- Coin credits applied by RewardSettlement, one row per idempotency key; a key that is already here
+-- is never paid again. The foreign key makes a credit to a missing account fail instead of being
+-- recorded without a balance change.
+CREATE TABLE IF NOT EXISTS reward_settlements (
+    settlement_key VARCHAR(100) PRIMARY KEY,
+    account_id     BIGINT       NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    amount         INT          NOT NULL,
+    settled_at     TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
@@ -1,10 +1,25 @@
 import perudo.core.Game;
+import perudo.eventlog.EventLogWriter;
 import perudo.ui.ConsoleUI;
 
+import java.nio.file.Path;
+
 public class Main {
     public static void main(String[] args) {
         ConsoleUI ui = new ConsoleUI();
         Game game = Game.createFromConsole(ui);
-        game.play();
+
+        // -Dperudo.eventlog.dir=<dir> keeps a binary record of the match
+        String logDir = System.getProperty("perudo.eventlog.dir");
+        if (logDir == null) {
+            game.play();
+            return;
+        }
+        try (EventLogWriter log = new EventLogWriter(Path.of(logDir))) {
+            long matchId = log.nextMatchId();
+            game.setEventLog(log, matchId);
+            ui.println("Event log: " + logDir + " (match " + matchId + ")");
+            game.play();
+        }
     }
 }
@@ -0,0 +1,274 @@
+package perudo.accounts;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Append-only local journal of bonus consumptions. Each entry is forced to disk before the caller
+ * continues and is written to Postgres later, in batches, by a sink. Lines are
+ * "C seq entryId accountId bonusType" for a consumption and "F seq" once everything up to seq
+ * has been applied. On open, entries past the last F line are pending again and get replayed.
+ * Entry ids are random, so the sink can apply them idempotently. The file is held under an exclusive
+ * lock while open, so a second process pointed at the same file fails instead of truncating entries
+ * it does not own.
+ */
+public final class BonusJournal implements AutoCloseable {
+    public static final class Entry {
+        public final long seq;
+        public final String entryId;
+        public final long accountId;
+        public final String bonusType;
+
+        Entry(long seq, String entryId, long accountId, String bonusType) {
+            this.seq = seq;
+            this.entryId = entryId;
+            this.accountId = accountId;
+            this.bonusType = bonusType;
+        }
+    }
+
+    // journals open in this JVM; a second channel on the same file must not even be opened, since
+    // closing it would release the first one's lock
+    private static final Set<Path> OPEN = ConcurrentHashMap.newKeySet();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Consumer<List<Entry>> sink;
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    // ReentrantLock rather than synchronized: append forces the file while holding it, and table
+    // threads are virtual, so a monitor would pin their carrier for the whole fsync
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private long nextSeq;
+    private long flushed;
+    private long failedFlushes;
+    private boolean closed;
+
+    // sink applies a batch or throws; a failed batch stays pending for the next flush
+    public BonusJournal(Path file, Consumer<List<Entry>> sink, long flushIntervalMillis) {
+        this.file = file;
+        this.sink = sink;
+        if (!OPEN.add(key())) throw new IllegalStateException("bonus journal " + file.toAbsolutePath() + " is already open");
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            lockFile();
+            long complete = recover();
+            // a crash mid-append leaves a partial last line; cut it off so the next entry starts clean
+            if (complete < channel.size()) channel.truncate(complete);
+            channel.position(complete);
+        } catch (IOException e) {
+            OPEN.remove(key());
+            throw new UncheckedIOException("bonus journal open failed: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            OPEN.remove(key());
+            throw e;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "perudo-bonus-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        // the first run replays whatever a previous process left behind
+        flusher.scheduleWithFixedDelay(this::flushQuietly, 0, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Path key() {
+        return file.toAbsolutePath().normalize();
+    }
+
+    // Released when the channel closes.
+    private void lockFile() throws IOException {
+        if (channel.tryLock() == null) {
+            channel.close();
+            throw new IllegalStateException("bonus journal " + file.toAbsolutePath()
+                    + " is in use by another process; give each process its own -Dperudo.bonus.journal");
+        }
+    }
+
+    // Loads pending entries; returns the length of the file up to its last complete line.
+    // Reads through the locked channel: closing any other descriptor of the file would drop the lock.
+    private long recover() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, buf.position()) < 0) break;
+        }
+        byte[] data = buf.array();
+        boolean torn = data.length > 0 && data[data.length - 1] != '\n';
+        String[] lines = new String(data, StandardCharsets.UTF_8).split("\n");
+        long done = -1;
+        List<Entry> entries = new ArrayList<>();
+        // only newline-terminated lines were fully written
+        for (int i = 0; i < (torn ? lines.length - 1 : lines.length); i++) {
+            if (lines[i].isBlank()) continue;
+            String[] f = lines[i].trim().split(" ");
+            try {
+                if (f[0].equals("C") && f.length == 5) {
+                    entries.add(new Entry(Long.parseLong(f[1]), f[2], Long.parseLong(f[3]), f[4]));
+                } else if (f[0].equals("F") && f.length == 2) {
+                    done = Math.max(done, Long.parseLong(f[1]));
+                }
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        for (Entry e : entries) {
+            nextSeq = Math.max(nextSeq, e.seq + 1);
+            if (e.seq > done) pending.add(e);
+        }
+        nextSeq = Math.max(nextSeq, done + 1);
+        int end = data.length;
+        while (end > 0 && data[end - 1] != '\n') end--;
+        return end;
+    }
+
+    public Entry append(long accountId, String bonusType) {
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("bonus journal closed");
+            Entry e = new Entry(nextSeq++, UUID.randomUUID().toString(), accountId, bonusType);
+            write("C " + e.seq + " " + e.entryId + " " + accountId + " " + bonusType + "\n");
+            pending.add(e);
+            return e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pending(long accountId, String bonusType) {
+        lock.lock();
+        try {
+            int n = 0;
+            for (Entry e : pending) {
+                if (e.accountId == accountId && e.bonusType.equals(bonusType)) n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Applies everything pending through the sink; returns how many entries were written.
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<Entry> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) return 0;
+                batch = new ArrayList<>(pending);
+            } finally {
+                lock.unlock();
+            }
+            try {
+                sink.accept(batch);
+            } catch (RuntimeException ex) {
+                lock.lock();
+                try {
+                    failedFlushes++;
+                } finally {
+                    lock.unlock();
+                }
+                throw ex;
+            }
+            lock.lock();
+            try {
+                for (int i = 0; i < batch.size(); i++) pending.pollFirst();
+                flushed += batch.size();
+                if (closed) return batch.size();
+                if (pending.isEmpty()) {
+                    truncate();
+                } else {
+                    write("F " + batch.get(batch.size() - 1).seq + "\n");
+                }
+            } finally {
+                lock.unlock();
+            }
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void flushSoon() {
+        if (!flusher.isShutdown()) flusher.execute(this::flushQuietly);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ignored) {
+            // database unavailable: entries stay on disk and the timer retries
+        }
+    }
+
+    private void write(String line) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) channel.write(buf);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("bonus journal write failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Everything in the file has been applied, so it can start over empty.
+    private void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("bonus journal truncate failed: " + e.getMessage(), e);
+        }
+    }
+
+    public String report() {
+        lock.lock();
+        try {
+            return String.format("bonus journal %s pending=%d flushed=%d failedFlushes=%d",
+                    file, pending.size(), flushed, failedFlushes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flushQuietly();
+        lock.lock();
+        try {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            OPEN.remove(key());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,40 +1,202 @@
 package perudo.accounts;
 
 import perudo.db.Db;
+import perudo.db.QueryCache;
+import perudo.jfr.QueryEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
 
 import java.sql.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public final class PgAccountRepository {
+    private static final LatencyHistogram DB_FIND_ALL = Metrics.histogram("db.account.findAll");
+    private static final LatencyHistogram DB_FIND_PAGE = Metrics.histogram("db.account.findPage");
+    private static final LatencyHistogram DB_FIND_BY_USERNAME = Metrics.histogram("db.account.findByUsername");
+    private static final LatencyHistogram DB_CREATE_IF_NOT_EXISTS = Metrics.histogram("db.account.createIfNotExists");
+    private static final LatencyHistogram DB_ADD_COINS = Metrics.histogram("db.account.addCoins");
+    private static final LatencyHistogram DB_DELETE_BY_USERNAME = Metrics.histogram("db.account.deleteByUsername");
+    private static final LatencyHistogram DB_GET_FULL_ACCOUNT_DESCRIPTION = Metrics.histogram("db.account.getFullAccountDescription");
+    private static final LatencyHistogram DB_GET_FULL_ACCOUNT_DESCRIPTIONS = Metrics.histogram("db.account.getFullAccountDescriptions");
+    private static final LatencyHistogram DB_FIND_BY_ID = Metrics.histogram("db.account.findById");
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Shared by every repository instance so a write through one is seen by all.
+    static final QueryCache<String, Account> BY_USERNAME = QueryCache.configured("accounts", 1_000, 30_000);
+    static final QueryCache<Long, Account> BY_ID = QueryCache.configured("accountsById", 1_000, 30_000);
+
     public List<Account> findAll() {
-        String sql = "SELECT id, username, coins FROM accounts ORDER BY username ASC";
         List<Account> res = new ArrayList<>();
+        forEach("", res::add);
+        return res;
+    }
+
+    /**
+     * Streams accounts whose username starts with prefix, in username order. Rows come from a
+     * server-side cursor STREAM_FETCH_SIZE at a time, so memory does not grow with the table.
+     */
+    public void forEach(String prefix, Consumer<Account> action) {
+        String sql = "SELECT id, username, coins FROM accounts WHERE username LIKE ? ESCAPE '\\'" +
+                prefixRange(prefix) + " ORDER BY username ASC";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.findAll");
+        int rows = 0;
+        try (Connection c = Db.getInstance().getConnection()) {
+            // pgjdbc only honours the fetch size inside a transaction
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setFetchSize(STREAM_FETCH_SIZE);
+                ps.setString(1, likePrefix(prefix));
+                bindPrefixRange(ps, 2, prefix);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        action.accept(new Account(rs.getLong("id"), rs.getString("username"), rs.getInt("coins")));
+                    }
+                }
+            }
+            c.commit();
+        } catch (SQLException e) {
+            throw new RuntimeException("findAll failed: " + e.getMessage(), e);
+        } finally {
+            DB_FIND_ALL.recordSince(start);
+            q.finish(rows);
+        }
+    }
+
+    /**
+     * One page of accounts in username order: usernames after afterUsername ("" for the first page)
+     * that start with prefix and are not in excluded. Each page is an index range scan of at most
+     * limit rows, whatever the size of the table.
+     */
+    public List<Account> findPage(String afterUsername, String prefix, Collection<String> excluded, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+        String sql = "SELECT id, username, coins FROM accounts " +
+                "WHERE username > ? AND username LIKE ? ESCAPE '\\' AND username <> ALL(?)" + prefixRange(prefix) +
+                " ORDER BY username ASC LIMIT ?";
+        List<Account> res = new ArrayList<>();
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.findPage");
         try (Connection c = Db.getInstance().getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                res.add(new Account(rs.getLong("id"), rs.getString("username"), rs.getInt("coins")));
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            Array skip = c.createArrayOf("varchar", excluded.toArray());
+            try {
+                ps.setString(1, afterUsername == null ? "" : afterUsername);
+                ps.setString(2, likePrefix(prefix));
+                ps.setArray(3, skip);
+                int next = bindPrefixRange(ps, 4, prefix);
+                ps.setInt(next, limit);
+                ps.setFetchSize(limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        res.add(new Account(rs.getLong("id"), rs.getString("username"), rs.getInt("coins")));
+                    }
+                }
+            } finally {
+                skip.free();
             }
             return res;
         } catch (SQLException e) {
-            throw new RuntimeException("findAll failed: " + e.getMessage(), e);
+            throw new RuntimeException("findPage failed: " + e.getMessage(), e);
+        } finally {
+            DB_FIND_PAGE.recordSince(start);
+            q.finish(res.size());
         }
     }
 
+    // Outside the C collation Postgres cannot turn LIKE 'x%' into an index range, so a prefix is also
+    // bound as [prefix, prefix + U+10FFFF) for the scan; LIKE stays as the exact filter.
+    private static String prefixRange(String prefix) {
+        return prefix == null || prefix.isBlank() ? "" : " AND username >= ? AND username < ?";
+    }
+
+    // Returns the next parameter index.
+    private static int bindPrefixRange(PreparedStatement ps, int index, String prefix) throws SQLException {
+        if (prefix == null || prefix.isBlank()) return index;
+        ps.setString(index, prefix.trim());
+        ps.setString(index + 1, prefix.trim() + Character.toString(Character.MAX_CODE_POINT));
+        return index + 2;
+    }
+
+    private static String likePrefix(String prefix) {
+        if (prefix == null) return "%";
+        return prefix.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
     public Account findByUsername(String username) {
         if (username == null || username.isBlank()) return null;
-        String sql = "SELECT id, username, coins FROM accounts WHERE username = ?";
+        return BY_USERNAME.get(username.trim(), this::loadByUsername);
+    }
+
+    public Account findById(long accountId) {
+        return BY_ID.get(accountId, this::loadById);
+    }
+
+    // Drops every cached copy of the account; call after any write that touches it.
+    static void invalidate(long accountId) {
+        BY_ID.invalidate(accountId);
+        BY_USERNAME.invalidateIf((name, acc) -> acc.getId() == accountId);
+    }
+
+    static void invalidate(String username) {
+        String u = username.trim();
+        BY_USERNAME.invalidate(u);
+        BY_ID.invalidateIf((id, acc) -> acc.getUsername().equals(u));
+    }
+
+    public static String cacheReport() {
+        return BY_USERNAME.report() + System.lineSeparator() + BY_ID.report();
+    }
+
+    private Account loadById(long accountId) {
+        String sql = "SELECT id, username, coins FROM accounts WHERE id = ?";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.findById");
+        int rows = 0;
         try (Connection c = Db.getInstance().getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setString(1, username.trim());
+            ps.setLong(1, accountId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) return null;
+                rows = 1;
                 return new Account(rs.getLong("id"), rs.getString("username"), rs.getInt("coins"));
             }
+        } catch (SQLException e) {
+            throw new RuntimeException("findById failed: " + e.getMessage(), e);
+        } finally {
+            DB_FIND_BY_ID.recordSince(start);
+            q.finish(rows);
+        }
+    }
+
+    private Account loadByUsername(String username) {
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.findByUsername");
+        int rows = 0;
+        try (Connection c = Db.getInstance().getConnection()) {
+            Account acc = selectByUsername(c, username);
+            if (acc != null) rows = 1;
+            return acc;
         } catch (SQLException e) {
             throw new RuntimeException("findByUsername failed: " + e.getMessage(), e);
+        } finally {
+            DB_FIND_BY_USERNAME.recordSince(start);
+            q.finish(rows);
         }
     }
+    private static Account selectByUsername(Connection c, String username) throws SQLException {
+        String sql = "SELECT id, username, coins FROM accounts WHERE username = ?";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, username.trim());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                return new Account(rs.getLong("id"), rs.getString("username"), rs.getInt("coins"));
+            }
+        }
+    }
+
     Connection connect() throws SQLException{
         return Db.getConnection();
     }
@@ -42,89 +204,156 @@ public final class PgAccountRepository {
         validateUsername(username);
 
         String insert = "INSERT INTO accounts(username) VALUES (?) ON CONFLICT (username) DO NOTHING";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.createIfNotExists");
+        int rows = 0;
         try (Connection c = Db.getInstance().getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(insert)) {
                 ps.setString(1, username.trim());
-                ps.executeUpdate();
+                rows = ps.executeUpdate();
             }
-            Account acc = findByUsername(username);
+            // same connection: with a bounded pool a nested lookup could wait on itself
+            Account acc = selectByUsername(c, username);
             if (acc == null) throw new RuntimeException("Account not found after insert/select.");
             return acc;
         } catch (SQLException e) {
             throw new RuntimeException("createIfNotExists failed: " + e.getMessage(), e);
+        } finally {
+            invalidate(username);
+            DB_CREATE_IF_NOT_EXISTS.recordSince(start);
+            q.finish(rows);
         }
     }
 
     public void addCoins(long accountId, int amount) {
         if (amount <= 0) throw new IllegalArgumentException("amount must be > 0");
         String sql = "UPDATE accounts SET coins = coins + ? WHERE id = ?";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.addCoins");
+        int rows = 0;
         try (Connection c = Db.getInstance().getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, amount);
             ps.setLong(2, accountId);
-            ps.executeUpdate();
+            rows = ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("addCoins failed: " + e.getMessage(), e);
+        } finally {
+            invalidate(accountId);
+            DB_ADD_COINS.recordSince(start);
+            q.finish(rows);
         }
     }
 
     public boolean deleteByUsername(String username) {
         validateUsername(username);
         String sql = "DELETE FROM accounts WHERE username = ?";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.deleteByUsername");
+        int rows = 0;
         try (Connection c = Db.getInstance().getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, username.trim());
-            return ps.executeUpdate() == 1;
+            rows = ps.executeUpdate();
+            return rows == 1;
         } catch (SQLException e) {
             throw new RuntimeException("deleteByUsername failed: " + e.getMessage(), e);
+        } finally {
+            invalidate(username);
+            DB_DELETE_BY_USERNAME.recordSince(start);
+            q.finish(rows);
         }
     }
 
-    public FullAccountDescription getFullAccountDescription(long accountId) {
-        // One query with JOINs (like GetFullOrderDescription)
-        String sql =
-                "SELECT a.id AS account_id, a.username, a.coins, " +
-                        "       r.role_code, ab.bonus_type, ab.quantity " +
-                        "FROM accounts a " +
-                        "LEFT JOIN account_roles ar ON ar.account_id = a.id " +
-                        "LEFT JOIN roles r ON r.id = ar.role_id " +
-                        "LEFT JOIN account_bonuses ab ON ab.account_id = a.id " +
-                        "WHERE a.id = ?";
-
-        String username = null;
-        Integer coins = null;
-        Set<String> roles = new HashSet<>();
-        Map<String, Integer> bonuses = new HashMap<>();
+    // Roles and bonuses are aggregated per account in LATERAL subqueries, so every account is one row
+    // instead of roles x bonuses rows.
+    private static final String FULL_DESCRIPTION_SQL =
+            "SELECT a.id, a.username, a.coins, " +
+                    "       COALESCE(r.roles, '{}') AS roles, " +
+                    "       COALESCE(b.bonus_types, '{}') AS bonus_types, " +
+                    "       COALESCE(b.quantities, '{}') AS quantities " +
+                    "FROM accounts a " +
+                    "LEFT JOIN LATERAL (" +
+                    "    SELECT array_agg(ro.role_code::text ORDER BY ro.role_code) AS roles " +
+                    "    FROM account_roles ar JOIN roles ro ON ro.id = ar.role_id " +
+                    "    WHERE ar.account_id = a.id) r ON true " +
+                    "LEFT JOIN LATERAL (" +
+                    "    SELECT array_agg(ab.bonus_type::text ORDER BY ab.bonus_type) AS bonus_types, " +
+                    "           array_agg(ab.quantity::int ORDER BY ab.bonus_type) AS quantities " +
+                    "    FROM account_bonuses ab WHERE ab.account_id = a.id) b ON true ";
 
+    public FullAccountDescription getFullAccountDescription(long accountId) {
+        String sql = FULL_DESCRIPTION_SQL + "WHERE a.id = ?";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.getFullAccountDescription");
+        int rows = 0;
         try (Connection c = Db.getInstance().getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, accountId);
             try (ResultSet rs = ps.executeQuery()) {
-                boolean any = false;
-                while (rs.next()) {
-                    any = true;
-                    username = rs.getString("username");
-                    coins = rs.getInt("coins");
-
-                    String role = rs.getString("role_code");
-                    if (role != null) roles.add(role);
-
-                    String bonus = rs.getString("bonus_type");
-                    int qty = rs.getInt("quantity");
-                    if (bonus != null) bonuses.put(bonus, qty);
-                }
-                if (!any) throw new RuntimeException("Account not found: id=" + accountId);
+                if (!rs.next()) throw new RuntimeException("Account not found: id=" + accountId);
+                rows = 1;
+                return readDescription(rs);
             }
         } catch (SQLException e) {
             throw new RuntimeException("getFullAccountDescription failed: " + e.getMessage(), e);
+        } finally {
+            DB_GET_FULL_ACCOUNT_DESCRIPTION.recordSince(start);
+            q.finish(rows);
         }
+    }
+
+    /**
+     * Loads many accounts in one round trip (the ids go over as a single array parameter).
+     * The map follows the order of accountIds; ids with no account are left out.
+     */
+    public Map<Long, FullAccountDescription> getFullAccountDescriptions(Collection<Long> accountIds) {
+        Map<Long, FullAccountDescription> res = new LinkedHashMap<>();
+        if (accountIds.isEmpty()) return res;
+        String sql = FULL_DESCRIPTION_SQL + "WHERE a.id = ANY(?)";
+        Map<Long, FullAccountDescription> found = new HashMap<>();
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("account.getFullAccountDescriptions");
+        try (Connection c = Db.getInstance().getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            Array ids = c.createArrayOf("bigint", accountIds.toArray());
+            try {
+                ps.setArray(1, ids);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        FullAccountDescription d = readDescription(rs);
+                        found.put(d.getAccountId(), d);
+                    }
+                }
+            } finally {
+                ids.free();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("getFullAccountDescriptions failed: " + e.getMessage(), e);
+        } finally {
+            DB_GET_FULL_ACCOUNT_DESCRIPTIONS.recordSince(start);
+            q.finish(found.size());
+        }
+        for (Long id : accountIds) {
+            FullAccountDescription d = found.get(id);
+            if (d != null) res.put(id, d);
+        }
+        return res;
+    }
+
+    private static FullAccountDescription readDescription(ResultSet rs) throws SQLException {
+        List<String> roles = new ArrayList<>();
+        Collections.addAll(roles, (String[]) rs.getArray("roles").getArray());
+
+        Map<String, Integer> bonuses = new HashMap<>();
+        String[] types = (String[]) rs.getArray("bonus_types").getArray();
+        Integer[] quantities = (Integer[]) rs.getArray("quantities").getArray();
+        for (int i = 0; i < types.length; i++) bonuses.put(types[i], quantities[i]);
 
-        List<String> roleList = new ArrayList<>(roles);
-        roleList.sort(String::compareTo);
-        return new FullAccountDescription(accountId, username, coins, roleList, bonuses);
+        return new FullAccountDescription(rs.getLong("id"), rs.getString("username"), rs.getInt("coins"), roles, bonuses);
     }
 
-    private static void validateUsername(String username) {
+    public static void validateUsername(String username) {
         if (username == null) throw new IllegalArgumentException("username is null");
         String u = username.trim();
         if (u.isEmpty()) throw new IllegalArgumentException("username is empty");
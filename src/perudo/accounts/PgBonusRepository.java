@@ -1,15 +1,130 @@
 package perudo.accounts;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import perudo.db.*;
+import perudo.jfr.QueryEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
 public class PgBonusRepository {
+    private static final LatencyHistogram DB_GET_INVENTORY = Metrics.histogram("db.bonus.getInventory");
+    private static final LatencyHistogram DB_BUY_BONUS = Metrics.histogram("db.bonus.buyBonus");
+    private static final LatencyHistogram DB_CONSUME_ONE = Metrics.histogram("db.bonus.consumeOne");
+    private static final LatencyHistogram DB_APPLY_CONSUMPTIONS = Metrics.histogram("db.bonus.applyConsumptions");
+    static final QueryCache<Long, Map<String, Integer>> INVENTORY = QueryCache.configured("inventory", 1_000, 30_000);
+    // -Dperudo.bonus.journal / .flushMillis; opened by the first consumption, so shop and login never touch it
+    private static volatile BonusJournal journal;
+    // journaled consumptions whose bonus had no quantity left in the database when applied
+    private static final LongAdder UNBACKED = new LongAdder();
     private final PgAccountRepository accountRepo;
     public PgBonusRepository(PgAccountRepository accountRepo){
         this.accountRepo = accountRepo;
     }
+    public static String cacheReport() {
+        BonusJournal j = journal;
+        String report = INVENTORY.report();
+        if (j != null) report += System.lineSeparator() + j.report() + " unbacked=" + UNBACKED.sum();
+        return report;
+    }
+
     public Map<String, Integer> getInventory(long accountId) {
+        // callers get their own copy; the cached map is never handed out
+        Map<String, Integer> inv = new HashMap<>(INVENTORY.get(accountId, this::loadInventory));
+        // consumptions still waiting in the journal are already spent; no journal yet means none
+        BonusJournal j = journal;
+        if (j == null) return inv;
+        for (Map.Entry<String, Integer> e : inv.entrySet()) {
+            int pending = j.pending(accountId, e.getKey());
+            if (pending > 0) e.setValue(Math.max(0, e.getValue() - pending));
+        }
+        return inv;
+    }
+
+    public static BonusJournal journal() {
+        BonusJournal j = journal;
+        if (j == null) {
+            synchronized (PgBonusRepository.class) {
+                j = journal;
+                if (j == null) {
+                    j = new BonusJournal(Path.of(System.getProperty("perudo.bonus.journal", "bonus-journal.log")),
+                            PgBonusRepository::applyConsumptions, Long.getLong("perudo.bonus.journal.flushMillis", 5_000));
+                    BonusJournal opened = j;
+                    Runtime.getRuntime().addShutdownHook(new Thread(opened::close, "perudo-bonus-journal-close"));
+                    journal = j;
+                }
+            }
+        }
+        return j;
+    }
+
+    // Records the use locally; the database catches up when the journal flushes.
+    public void consumeLater(long accountId, String bonusType) {
+        journal().append(accountId, bonusType);
+    }
+
+    public void flushConsumptionsSoon() {
+        BonusJournal j = journal;
+        if (j != null) j.flushSoon();
+    }
+
+    // An entry is recorded in bonus_consumptions only together with its decrement, so a replayed entry
+    // finds its id and does nothing. Entries whose bonus had no quantity left are counted, not recorded.
+    static void applyConsumptions(List<BonusJournal.Entry> batch) {
+        String sql =
+                "WITH dec AS (" +
+                        "UPDATE account_bonuses b SET quantity = b.quantity - 1 " +
+                        "WHERE b.account_id = ? AND b.bonus_type = ? AND b.quantity > 0 " +
+                        "AND NOT EXISTS (SELECT 1 FROM bonus_consumptions c WHERE c.entry_id = ?) " +
+                        "RETURNING b.account_id) " +
+                        "INSERT INTO bonus_consumptions(entry_id, account_id, bonus_type) SELECT ?, account_id, ? FROM dec";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("bonus.applyConsumptions");
+        int rows = 0;
+        try (Connection c = Db.getConnection()) {
+            c.setAutoCommit(false);
+            List<String> notApplied = new ArrayList<>();
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (BonusJournal.Entry e : batch) {
+                    ps.setLong(1, e.accountId);
+                    ps.setString(2, e.bonusType);
+                    ps.setString(3, e.entryId);
+                    ps.setString(4, e.entryId);
+                    ps.setString(5, e.bonusType);
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) rows += counts[i];
+                    else notApplied.add(batch.get(i).entryId);
+                }
+            }
+            int unbacked = notApplied.size();
+            if (unbacked > 0) {
+                // replays of entries applied before are expected; anything else had nothing to decrement
+                try (PreparedStatement ps = c.prepareStatement("SELECT count(*) FROM bonus_consumptions WHERE entry_id = ANY(?)")) {
+                    ps.setArray(1, c.createArrayOf("varchar", notApplied.toArray()));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) unbacked -= rs.getInt(1);
+                    }
+                }
+            }
+            c.commit();
+            if (unbacked > 0) UNBACKED.add(unbacked);
+        } catch (SQLException e) {
+            throw new RuntimeException("DB applyConsumptions failed: " + e.getMessage(), e);
+        } finally {
+            for (BonusJournal.Entry e : batch) INVENTORY.invalidate(e.accountId);
+            DB_APPLY_CONSUMPTIONS.recordSince(start);
+            q.finish(rows);
+        }
+    }
+
+    private Map<String, Integer> loadInventory(long accountId) {
         String sql = "SELECT bonus_type, quantity FROM account_bonuses WHERE account_id = ?";
         Map<String, Integer> inv = new HashMap<>();
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("bonus.getInventory");
         try (Connection connect = Db.getConnection();
              PreparedStatement prepSt = connect.prepareStatement(sql)) {
             prepSt.setLong(1, accountId);
@@ -18,9 +133,12 @@ public class PgBonusRepository {
                     inv.put(rs.getString("bonus_type"), rs.getInt("quantity"));
                 }
             }
-            return inv;
+            return Collections.unmodifiableMap(inv);
         } catch (SQLException e) {
             throw new RuntimeException("DB getInventory failed: " + e.getMessage(), e);
+        } finally {
+            DB_GET_INVENTORY.recordSince(start);
+            q.finish(inv.size());
         }
     }
     public void buyBonus(long accountId, String bonusType, int qty, int pricePerItem) {
@@ -34,6 +152,9 @@ public class PgBonusRepository {
                         "VALUES (?, ?, ?) " +
                         "ON CONFLICT (account_id, bonus_type) DO UPDATE SET quantity = account_bonuses.quantity + EXCLUDED.quantity";
 
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("bonus.buyBonus");
+        int rows = 0;
         try (Connection c = accountRepo.connect()) {
             c.setAutoCommit(false);
 
@@ -54,32 +175,45 @@ public class PgBonusRepository {
             try (PreparedStatement ps = c.prepareStatement(updateCoins)) {
                 ps.setInt(1, totalCost);
                 ps.setLong(2, accountId);
-                ps.executeUpdate();
+                rows += ps.executeUpdate();
             }
 
             try (PreparedStatement ps = c.prepareStatement(upsertBonus)) {
                 ps.setLong(1, accountId);
                 ps.setString(2, bonusType);
                 ps.setInt(3, qty);
-                ps.executeUpdate();
+                rows += ps.executeUpdate();
             }
 
             c.commit();
         } catch (SQLException e) {
             throw new RuntimeException("DB buyBonus failed: " + e.getMessage(), e);
+        } finally {
+            INVENTORY.invalidate(accountId);
+            PgAccountRepository.invalidate(accountId);
+            DB_BUY_BONUS.recordSince(start);
+            q.finish(rows);
         }
     }
 
     public boolean consumeOne(long accountId, String bonusType) {
         String sql =
                 "UPDATE account_bonuses " + "SET quantity = quantity - 1 " + "WHERE account_id = ? AND bonus_type = ? AND quantity > 0";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("bonus.consumeOne");
+        int rows = 0;
         try (Connection c = accountRepo.connect();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, accountId);
             ps.setString(2, bonusType);
-            return ps.executeUpdate() == 1;
+            rows = ps.executeUpdate();
+            return rows == 1;
         } catch (SQLException e) {
             throw new RuntimeException("DB consumeOne failed: " + e.getMessage(), e);
+        } finally {
+            INVENTORY.invalidate(accountId);
+            DB_CONSUME_ONE.recordSince(start);
+            q.finish(rows);
         }
     }
 }
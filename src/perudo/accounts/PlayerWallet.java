@@ -33,6 +33,19 @@ public class PlayerWallet {
     public void markPeekUsed(){
         peekUsedThisGame = true;
     }
+    // Takes this match's use out of the wallet; the database is updated later through the bonus journal.
+    public boolean reserveReroll() {
+        if (!canUseReroll()) return false;
+        decrementRerollLocal();
+        markRerollUsed();
+        return true;
+    }
+    public boolean reservePeek() {
+        if (!canUsePeek()) return false;
+        decrementPeekLocal();
+        markPeekUsed();
+        return true;
+    }
     public void decrementRerollLocal() { rerollCount = Math.max(0, rerollCount - 1); }
     public void decrementPeekLocal() { peekCount = Math.max(0, peekCount - 1); }
 }
@@ -0,0 +1,237 @@
+package perudo.accounts;
+
+import perudo.db.Db;
+import perudo.jfr.QueryEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects coin credits (match rewards, manager grants) from every table and applies them in one
+ * transaction per flush. Each credit carries an idempotency key that is recorded in
+ * reward_settlements together with the balance change, so a flush retried after an unclear failure
+ * never pays the same key twice. When the database cannot be reached the credits stay queued for the
+ * next flush; a batch that fails on its data is retried one credit at a time, so only the credits
+ * that fail alone (a missing account, say) are rejected and the rest are paid. The queue lives in
+ * memory only: callers that tell a player about a credit wait for its future first, and whatever is
+ * still unpaid at close is written to stderr with its key so it can be re-applied.
+ */
+public final class RewardSettlement implements AutoCloseable {
+    private static final LatencyHistogram FLUSH_TIME = Metrics.histogram("db.settlement.flush");
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    // -Dperudo.settlement.flushMillis / .maxBatch; created on first use like the connection pool
+    private static volatile RewardSettlement shared;
+
+    private static final class Credit {
+        final String key;
+        final long accountId;
+        final int amount;
+        final CompletableFuture<Boolean> done = new CompletableFuture<>();
+
+        Credit(String key, long accountId, int amount) {
+            this.key = key;
+            this.accountId = accountId;
+            this.amount = amount;
+        }
+    }
+
+    private final int maxBatch;
+    private final LinkedBlockingQueue<Credit> queue = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private volatile boolean failing;
+
+    private final LongAdder credits = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final AtomicLong maxBatchSeen = new AtomicLong();
+
+    public RewardSettlement(long flushIntervalMillis, int maxBatch) {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be >= 1");
+        this.maxBatch = maxBatch;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "perudo-settlement");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static RewardSettlement shared() {
+        RewardSettlement s = shared;
+        if (s == null) {
+            synchronized (RewardSettlement.class) {
+                s = shared;
+                if (s == null) {
+                    s = new RewardSettlement(Long.getLong("perudo.settlement.flushMillis", 200),
+                            Integer.getInteger("perudo.settlement.maxBatch", 500));
+                    RewardSettlement created = s;
+                    Runtime.getRuntime().addShutdownHook(new Thread(created::close, "perudo-settlement-close"));
+                    shared = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    public static String matchKey(long matchId, long accountId) {
+        return "match:" + matchId + ":" + accountId;
+    }
+
+    /**
+     * Queues a credit. The future completes with true once it is paid, with false if the key
+     * had already been settled, or exceptionally if the credit itself was rejected.
+     */
+    public CompletableFuture<Boolean> credit(String key, long accountId, int amount) {
+        if (amount <= 0) throw new IllegalArgumentException("amount must be > 0");
+        if (key == null || key.isBlank() || key.length() > 100) throw new IllegalArgumentException("invalid settlement key");
+        Credit c = new Credit(key, accountId, amount);
+        queue.add(c);
+        credits.increment();
+        if (queue.size() >= maxBatch) flushSoon();
+        return c.done;
+    }
+
+    // Applies everything queued, maxBatch credits per transaction; returns how many were processed.
+    public int flush() {
+        synchronized (flushLock) {
+            int total = 0;
+            List<Credit> batch = new ArrayList<>();
+            while (queue.drainTo(batch, maxBatch) > 0) {
+                try {
+                    apply(batch);
+                } catch (RuntimeException ex) {
+                    failedFlushes.increment();
+                    if (!badData(ex)) {
+                        requeue(batch);
+                        throw ex;
+                    }
+                    // one bad credit aborts the whole transaction; apply them alone to find it
+                    for (int i = 0; i < batch.size(); i++) {
+                        Credit cr = batch.get(i);
+                        try {
+                            apply(List.of(cr));
+                        } catch (RuntimeException one) {
+                            if (!badData(one)) {
+                                requeue(batch.subList(i, batch.size()));
+                                throw one;
+                            }
+                            rejected.increment();
+                            cr.done.completeExceptionally(one);
+                        }
+                    }
+                }
+                total += batch.size();
+                batch.clear();
+            }
+            return total;
+        }
+    }
+
+    // Keeps them for the next flush, ahead of anything newer.
+    private void requeue(List<Credit> credits) {
+        List<Credit> rest = new ArrayList<>(credits);
+        queue.drainTo(rest);
+        queue.addAll(rest);
+    }
+
+    // Data exceptions and constraint violations (SQLSTATE classes 22 and 23) fail the same way on every
+    // retry; anything else, a lost connection say, is worth retrying later.
+    private static boolean badData(RuntimeException ex) {
+        if (!(ex.getCause() instanceof SQLException)) return false;
+        String state = ((SQLException) ex.getCause()).getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    public void flushSoon() {
+        if (!flusher.isShutdown()) flusher.execute(this::flushQuietly);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+            failing = false;
+        } catch (RuntimeException ex) {
+            // database unavailable: the credits stay queued and the timer retries; say so once per outage
+            if (!failing) System.err.println("Reward settlement failing, " + queue.size() + " credits queued: " + ex.getMessage());
+            failing = true;
+        }
+    }
+
+    private void apply(List<Credit> batch) {
+        String sql =
+                "WITH ins AS (" +
+                        "INSERT INTO reward_settlements(settlement_key, account_id, amount) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (settlement_key) DO NOTHING RETURNING account_id, amount) " +
+                        "UPDATE accounts a SET coins = a.coins + ins.amount FROM ins WHERE a.id = ins.account_id";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("settlement.flush");
+        int rows = 0;
+        int[] counts;
+        try (Connection c = Db.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Credit cr : batch) {
+                    ps.setString(1, cr.key);
+                    ps.setLong(2, cr.accountId);
+                    ps.setInt(3, cr.amount);
+                    ps.addBatch();
+                }
+                counts = ps.executeBatch();
+            }
+            c.commit();
+        } catch (SQLException e) {
+            if (batch.size() == 1 && FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+                throw new RuntimeException("account " + batch.get(0).accountId + " does not exist", e);
+            }
+            throw new RuntimeException("settlement flush failed: " + e.getMessage(), e);
+        } finally {
+            for (Credit cr : batch) PgAccountRepository.invalidate(cr.accountId);
+            FLUSH_TIME.recordSince(start);
+        }
+
+        flushes.increment();
+        maxBatchSeen.accumulateAndGet(batch.size(), Math::max);
+        for (int i = 0; i < batch.size(); i++) {
+            // 0 rows updated: the key was already in reward_settlements (a missing account fails the insert)
+            boolean paid = counts[i] != 0;
+            if (paid) {
+                applied.increment();
+                rows++;
+            } else {
+                duplicates.increment();
+            }
+            batch.get(i).done.complete(paid);
+        }
+        q.finish(rows);
+    }
+
+    public int queued() { return queue.size(); }
+
+    public String report() {
+        long n = flushes.sum();
+        return String.format("settlement queued=%d credits=%d applied=%d duplicates=%d rejected=%d | flushes=%d failed=%d avgBatch=%.1f maxBatch=%d",
+                queue.size(), credits.sum(), applied.sum(), duplicates.sum(), rejected.sum(), n, failedFlushes.sum(),
+                n == 0 ? 0.0 : (applied.sum() + duplicates.sum()) / (double) n, maxBatchSeen.get());
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flushQuietly();
+        Credit c;
+        while ((c = queue.poll()) != null) {
+            System.err.println("Unsettled credit key=" + c.key + " account=" + c.accountId + " amount=" + c.amount);
+            c.done.completeExceptionally(new IllegalStateException("settlement closed before the credit was paid"));
+        }
+    }
+}
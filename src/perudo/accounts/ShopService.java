@@ -1,22 +1,35 @@
 package perudo.accounts;
 
 import perudo.core.BonusKinds;
-import perudo.db.DbConfig;
+import perudo.db.Db;
+import perudo.jfr.QueryEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
 import perudo.security.PgRoleRepository;
 import perudo.security.RoleKinds;
-import perudo.ui.ConsoleUI;
+import perudo.ui.GameUI;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 public final class ShopService {
+    private static final LatencyHistogram DB_LOAD_CATALOG = Metrics.histogram("db.shop.loadCatalogProducts");
     private ShopService() {}
 
     private static final int FALLBACK_PRICE_REROLL = 30;
     private static final int FALLBACK_PRICE_PEEK   = 50;
 
-    public static void openShop(ConsoleUI ui,
+    private static final long CATALOG_TTL_MILLIS = Long.getLong("perudo.cache.catalog.ttlMillis", 300_000);
+    private static final Object CATALOG_LOCK = new Object();
+    private static volatile Catalog catalog;
+    private static long catalogVersion;
+
+    public static void openShop(GameUI ui,
                                 PgAccountRepository accRepo,
                                 PgBonusRepository bonusRepo,
                                 Account account) {
@@ -42,44 +55,26 @@ public final class ShopService {
             ui.println("Inventory: REROLL=" + inv.getOrDefault(BonusKinds.reroll, 0)
                     + ", PEEK=" + inv.getOrDefault(BonusKinds.peek, 0));
 
-            List<BonusProduct> products = loadCatalogProducts();
-            if (products.isEmpty()) {
-                products = List.of(
-                        new BonusProduct("GAMEPLAY", BonusKinds.reroll, "Reroll your dice (1x per match)", FALLBACK_PRICE_REROLL),
-                        new BonusProduct("GAMEPLAY", BonusKinds.peek, "Peek one bot dice (1x per match)", FALLBACK_PRICE_PEEK)
-                );
-            }
-
-            Map<String, List<BonusProduct>> byCategory = products.stream()
-                    .sorted(Comparator.comparing(BonusProduct::category).thenComparing(BonusProduct::displayName))
-                    .collect(Collectors.groupingBy(BonusProduct::category, LinkedHashMap::new, Collectors.toList()));
-
+            Catalog menu = currentCatalog();
             Map<Integer, Runnable> handlers = new HashMap<>();
-            List<BonusProduct> flatMenu = new ArrayList<>();
 
             ui.println("\nProducts:");
-            int idx = 1;
-
-            for (Map.Entry<String, List<BonusProduct>> e : byCategory.entrySet()) {
-                ui.println("[" + e.getKey() + "]");
-                for (BonusProduct p : e.getValue()) {
-                    final int num = idx;
-                    ui.println("  " + num + ") " + p.displayName() + " | code=" + p.code() + " | price=" + p.price());
-                    flatMenu.add(p);
-
-                    handlers.put(num, () -> {
-                        int qty = ui.readInt("Quantity (1..20): ", 1, 20);
-                        try {
-                            bonusRepo.buyBonus(accountId, p.code(), qty, p.price());
-                            ui.println("Purchased: " + qty + " x " + p.code());
-                        } catch (RuntimeException ex) {
-                            ui.println("Purchase failed: " + ex.getMessage());
-                        }
-                    });
-
-                    idx++;
-                }
+            for (String line : menu.menuLines) ui.println(line);
+
+            List<BonusProduct> flatMenu = menu.flatMenu;
+            for (int i = 0; i < flatMenu.size(); i++) {
+                BonusProduct p = flatMenu.get(i);
+                handlers.put(i + 1, () -> {
+                    int qty = ui.readInt("Quantity (1..20): ", 1, 20);
+                    try {
+                        bonusRepo.buyBonus(accountId, p.code(), qty, p.price());
+                        ui.println("Purchased: " + qty + " x " + p.code());
+                    } catch (RuntimeException ex) {
+                        ui.println("Purchase failed: " + ex.getMessage());
+                    }
+                });
             }
+            int idx = flatMenu.size() + 1;
 
             if (isManager) {
                 final int num = idx;
@@ -110,7 +105,7 @@ public final class ShopService {
             handler.run();
         }
     }
-    private static void handleGrantCoins(ConsoleUI ui, PgAccountRepository accRepo) {
+    private static void handleGrantCoins(GameUI ui, PgAccountRepository accRepo) {
         ui.println("\n=== GRANT COINS (MANAGER/ADMIN) ===");
         String targetUsername = ui.readNonEmpty("Target username: ");
         Account target = accRepo.findByUsername(targetUsername);
@@ -119,11 +114,20 @@ public final class ShopService {
             return;
         }
         int amount = ui.readInt("Coins to add (1..100000): ", 1, 100000);
-        accRepo.addCoins(target.getId(), amount);
-        ui.println("Granted +" + amount + " coins to " + target.getUsername());
+        CompletableFuture<Boolean> paid = RewardSettlement.shared().credit("grant:" + UUID.randomUUID(), target.getId(), amount);
+        try {
+            paid.get(5, TimeUnit.SECONDS);
+            ui.println("Granted +" + amount + " coins to " + target.getUsername());
+        } catch (TimeoutException e) {
+            ui.println("Grant of +" + amount + " coins to " + target.getUsername() + " is queued and will be applied shortly.");
+        } catch (ExecutionException e) {
+            ui.println("Grant failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
-    private static void handleDeleteAccount(ConsoleUI ui, PgAccountRepository accRepo, String currentUsername) {
+    private static void handleDeleteAccount(GameUI ui, PgAccountRepository accRepo, String currentUsername) {
         ui.println("\n=== DELETE ACCOUNT (ADMIN) ===");
         String targetUsername = ui.readNonEmpty("Username to delete: ");
 
@@ -165,6 +169,44 @@ public final class ShopService {
         }
     }
 
+    // Drops the cached catalog; the next shop screen reloads it. Call after editing bonus_catalog.
+    public static void invalidateCatalog() {
+        synchronized (CATALOG_LOCK) {
+            catalog = null;
+        }
+    }
+
+    public static long catalogVersion() {
+        Catalog c = catalog;
+        return c == null ? 0 : c.version;
+    }
+
+    private static Catalog currentCatalog() {
+        Catalog c = catalog;
+        if (c != null && System.currentTimeMillis() < c.expiresAt) return c;
+        synchronized (CATALOG_LOCK) {
+            c = catalog;
+            if (c != null && System.currentTimeMillis() < c.expiresAt) return c;
+            List<BonusProduct> products = loadCatalogProducts();
+            if (products == null) {
+                // database unavailable: show the fallback products but keep retrying on the next screen
+                return c != null ? c : new Catalog(catalogVersion, fallbackProducts(), 0);
+            }
+            if (products.isEmpty()) products = fallbackProducts();
+            c = new Catalog(++catalogVersion, products, System.currentTimeMillis() + CATALOG_TTL_MILLIS);
+            catalog = c;
+            return c;
+        }
+    }
+
+    private static List<BonusProduct> fallbackProducts() {
+        return List.of(
+                new BonusProduct("GAMEPLAY", BonusKinds.reroll, "Reroll your dice (1x per match)", FALLBACK_PRICE_REROLL),
+                new BonusProduct("GAMEPLAY", BonusKinds.peek, "Peek one bot dice (1x per match)", FALLBACK_PRICE_PEEK)
+        );
+    }
+
+    // null when the query failed, so a database hiccup is not cached as an empty catalog
     private static List<BonusProduct> loadCatalogProducts() {
         String sql =
                 "SELECT c.category_name, p.bonus_code, p.display_name, p.price " +
@@ -174,7 +216,9 @@ public final class ShopService {
 
         List<BonusProduct> res = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(DbConfig.DB_URL, DbConfig.DB_USER, DbConfig.DB_PASSWORD);
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("shop.loadCatalogProducts");
+        try (Connection conn = Db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
@@ -191,12 +235,44 @@ public final class ShopService {
             }
 
         } catch (SQLException e) {
-            return Collections.emptyList();
+            return null;
+        } finally {
+            DB_LOAD_CATALOG.recordSince(start);
+            q.finish(res.size());
         }
 
         return res;
     }
 
+    // Immutable snapshot of the catalog with its menu already grouped, sorted and numbered.
+    private static final class Catalog {
+        private final long version;
+        private final long expiresAt;
+        private final List<BonusProduct> flatMenu;
+        private final List<String> menuLines;
+
+        private Catalog(long version, List<BonusProduct> products, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+
+            Map<String, List<BonusProduct>> byCategory = products.stream()
+                    .sorted(Comparator.comparing(BonusProduct::category).thenComparing(BonusProduct::displayName))
+                    .collect(Collectors.groupingBy(BonusProduct::category, LinkedHashMap::new, Collectors.toList()));
+
+            List<BonusProduct> flat = new ArrayList<>();
+            List<String> lines = new ArrayList<>();
+            for (Map.Entry<String, List<BonusProduct>> e : byCategory.entrySet()) {
+                lines.add("[" + e.getKey() + "]");
+                for (BonusProduct p : e.getValue()) {
+                    flat.add(p);
+                    lines.add("  " + flat.size() + ") " + p.displayName() + " | code=" + p.code() + " | price=" + p.price());
+                }
+            }
+            this.flatMenu = List.copyOf(flat);
+            this.menuLines = List.copyOf(lines);
+        }
+    }
+
     private static final class BonusProduct {
         private final String category;
         private final String code;
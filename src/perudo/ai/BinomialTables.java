@@ -0,0 +1,75 @@
+package perudo.ai;
+
+/**
+ * Precomputed binomial distributions for counting matches among unknown dice.
+ * Ones are wild, so a non-one face matches with p = 1/3 and a bid on ones with p = 1/6.
+ * Lookups are array reads; tables cover up to MAX_DICE unknown dice.
+ */
+public final class BinomialTables {
+    public static final int MAX_DICE = 200;
+
+    private static final BinomialTables SHARED = new BinomialTables(MAX_DICE);
+
+    private final int maxDice;
+    private final int stride;
+    // [n * stride + k]: P(X == k) and P(X >= k), X ~ Bin(n, p)
+    private final double[] exactWild;
+    private final double[] atLeastWild;
+    private final double[] exactOnes;
+    private final double[] atLeastOnes;
+
+    private BinomialTables(int maxDice) {
+        this.maxDice = maxDice;
+        this.stride = maxDice + 2;
+        int size = (maxDice + 1) * stride;
+        this.exactWild = new double[size];
+        this.atLeastWild = new double[size];
+        this.exactOnes = new double[size];
+        this.atLeastOnes = new double[size];
+        fill(exactWild, atLeastWild, 1.0 / 3.0);
+        fill(exactOnes, atLeastOnes, 1.0 / 6.0);
+    }
+
+    public static BinomialTables shared() {
+        return SHARED;
+    }
+
+    public int maxDice() { return maxDice; }
+
+    // P(at least k of n unknown dice match face).
+    public double atLeast(int n, int k, int face) {
+        if (k <= 0) return 1.0;
+        if (n > maxDice) n = maxDice;
+        if (k > n) return 0.0;
+        return (face == 1 ? atLeastOnes : atLeastWild)[n * stride + k];
+    }
+
+    // P(exactly k of n unknown dice match face).
+    public double exactly(int n, int k, int face) {
+        if (k < 0) return 0.0;
+        if (n > maxDice) n = maxDice;
+        if (k > n) return 0.0;
+        return (face == 1 ? exactOnes : exactWild)[n * stride + k];
+    }
+
+    private void fill(double[] exact, double[] atLeast, double p) {
+        double q = 1.0 - p;
+        exact[0] = 1.0;
+        for (int n = 1; n <= maxDice; n++) {
+            int row = n * stride;
+            int prev = (n - 1) * stride;
+            exact[row] = exact[prev] * q;
+            for (int k = 1; k <= n; k++) {
+                exact[row + k] = exact[prev + k] * q + exact[prev + k - 1] * p;
+            }
+        }
+        for (int n = 0; n <= maxDice; n++) {
+            int row = n * stride;
+            double sum = 0;
+            for (int k = n; k >= 0; k--) {
+                sum += exact[row + k];
+                atLeast[row + k] = Math.min(1.0, sum);
+            }
+        }
+    }
+}
@@ -6,4 +6,8 @@ import perudo.players.Player;
 
 public interface BotStrategy {
     Action choose(Player self, RoundContext ctx);
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
 }
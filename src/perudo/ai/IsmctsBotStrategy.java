@@ -0,0 +1,380 @@
+package perudo.ai;
+
+import perudo.core.*;
+import perudo.players.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Information-set Monte Carlo tree search over the current round.
+ * Each iteration deals the opponents' hidden dice at random (the bot only knows their counts),
+ * walks the tree of public bid/call actions with UCB1 from the acting seat's point of view,
+ * finishes with a cheap odds-based rollout and resolves LIAR/EXACT with RuleEngine's rules.
+ * Root parallelism: each worker grows its own tree and root visit counts are summed.
+ */
+public final class IsmctsBotStrategy implements BotStrategy {
+    private static final int LIAR = -1;
+    private static final int EXACT = -2;
+    private static final double EXPLORATION = 0.7;
+
+    private final RandomGenerator rnd;
+    private final int iterations;
+    private final long timeBudgetNanos;
+    private final int threads;
+    private final BinomialTables odds = BinomialTables.shared();
+    private final LongAdder totalIterations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder decisions = new LongAdder();
+
+    public IsmctsBotStrategy(RandomGenerator rnd) {
+        this(rnd, 2_000, 0, 1);
+    }
+
+    // iterations: per move across all workers (0 = time only); timeBudgetMillis: per move (0 = iterations only).
+    public IsmctsBotStrategy(RandomGenerator rnd, int iterations, long timeBudgetMillis, int threads) {
+        if (iterations <= 0 && timeBudgetMillis <= 0) throw new IllegalArgumentException("need an iteration or time budget");
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        this.rnd = rnd;
+        this.iterations = Math.max(0, iterations);
+        this.timeBudgetNanos = Math.max(0, timeBudgetMillis) * 1_000_000L;
+        this.threads = threads;
+    }
+
+    @Override
+    public String name() {
+        return "ISMCTS";
+    }
+
+    public long decisions() { return decisions.sum(); }
+    public long iterations() { return totalIterations.sum(); }
+
+    public double iterationsPerSecond() {
+        long nanos = totalNanos.sum();
+        return nanos == 0 ? 0 : totalIterations.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public Action choose(Player self, RoundContext ctx) {
+        long start = System.nanoTime();
+        Table table = Table.of(self, ctx);
+
+        int perWorker = iterations == 0 ? Integer.MAX_VALUE : Math.max(1, iterations / threads);
+        long deadline = timeBudgetNanos == 0 ? Long.MAX_VALUE : start + timeBudgetNanos;
+
+        Search[] workers = new Search[threads];
+        for (int i = 0; i < threads; i++) workers[i] = new Search(table, new SplittableRandom(rnd.nextLong()), odds);
+
+        if (threads == 1) {
+            workers[0].run(perWorker, deadline);
+        } else {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[threads - 1];
+            for (int i = 1; i < threads; i++) {
+                Search w = workers[i];
+                futures[i - 1] = CompletableFuture.runAsync(() -> w.run(perWorker, deadline), ForkJoinPool.commonPool());
+            }
+            workers[0].run(perWorker, deadline);
+            CompletableFuture.allOf(futures).join();
+        }
+
+        Node root = workers[0].root;
+        long[] visits = new long[root.actions.length];
+        long done = 0;
+        for (Search w : workers) {
+            done += w.iterationsDone;
+            for (int a = 0; a < visits.length; a++) visits[a] += w.root.n[a];
+        }
+        int best = 0;
+        for (int a = 1; a < visits.length; a++) if (visits[a] > visits[best]) best = a;
+
+        totalIterations.add(done);
+        totalNanos.add(System.nanoTime() - start);
+        decisions.increment();
+
+        int code = root.actions[best];
+        if (code == LIAR) return Action.liar();
+        if (code == EXACT) return Action.exact();
+        return Action.bid(Bid.ofRank(code));
+    }
+
+    // Public state of the round seen by the deciding bot; seat 0 is the bot, seats follow turn order.
+    private static final class Table {
+        final int seats;
+        final int[] dice;
+        final int[] maxDice;
+        final int[] myHist = new int[7];
+        final int totalDice;
+        final int bidRank;
+        final int bidder;
+
+        private Table(int seats, int[] dice, int[] maxDice, int bidRank, int bidder) {
+            this.seats = seats;
+            this.dice = dice;
+            this.maxDice = maxDice;
+            int t = 0;
+            for (int d : dice) t += d;
+            this.totalDice = t;
+            this.bidRank = bidRank;
+            this.bidder = bidder;
+        }
+
+        static Table of(Player self, RoundContext ctx) {
+            List<Player> players = ctx.players();
+            int n = players.size();
+            int selfIndex = players.indexOf(self);
+
+            int alive = ctx.alivePlayers();
+            int[] dice = new int[alive];
+            int[] max = new int[alive];
+            int bidder = -1;
+            int s = 0;
+            for (int k = 0; k < n; k++) {
+                int idx = (selfIndex + k) % n;
+                Player p = players.get(idx);
+                if (!p.isAlive()) continue;
+                if (idx == ctx.lastBidderIndex()) bidder = s;
+                dice[s] = p.diceCount();
+                max[s] = p.cup().maxDice();
+                s++;
+            }
+            Bid cur = ctx.currentBid();
+            Table t = new Table(alive, dice, max, cur == null ? -1 : cur.rank(), cur == null ? -1 : bidder);
+            DiceCup cup = self.cup();
+            for (int f = 1; f <= 6; f++) t.myHist[f] = cup.countFace(f);
+            return t;
+        }
+    }
+
+    private static final class Node {
+        final int actor;
+        final int[] actions;
+        final int[] n;
+        final double[] w;
+        final Node[] children;
+        int visits;
+
+        Node(int actor, int[] actions) {
+            this.actor = actor;
+            this.actions = actions;
+            this.n = new int[actions.length];
+            this.w = new double[actions.length];
+            this.children = new Node[actions.length];
+        }
+    }
+
+    private static final class Search {
+        final Table table;
+        final SplittableRandom rng;
+        final BinomialTables odds;
+        final Node root;
+        final int[][] hist;
+        final int[] total = new int[7];
+        final double[] reward;
+        Node[] pathNodes = new Node[64];
+        int[] pathActions = new int[64];
+        long iterationsDone;
+
+        Search(Table table, SplittableRandom rng, BinomialTables odds) {
+            this.table = table;
+            this.rng = rng;
+            this.odds = odds;
+            this.hist = new int[table.seats][7];
+            this.reward = new double[table.seats];
+            this.root = new Node(0, actions(table.bidRank));
+        }
+
+        void run(int maxIterations, long deadline) {
+            for (int i = 0; i < maxIterations; i++) {
+                if ((i & 63) == 0 && System.nanoTime() >= deadline) break;
+                iterate();
+                iterationsDone++;
+            }
+        }
+
+        private void iterate() {
+            deal();
+
+            Node node = root;
+            int bidRank = table.bidRank;
+            int bidder = table.bidder;
+            int depth = 0;
+
+            while (true) {
+                int a = select(node);
+                push(depth++, node, a);
+                int code = node.actions[a];
+                if (code < 0) {
+                    resolve(code, node.actor, bidRank, bidder);
+                    break;
+                }
+                bidRank = code;
+                bidder = node.actor;
+                int next = (node.actor + 1) % table.seats;
+
+                Node child = node.children[a];
+                if (child == null) {
+                    child = new Node(next, actions(bidRank));
+                    node.children[a] = child;
+                    rollout(next, bidRank, bidder);
+                    break;
+                }
+                node = child;
+            }
+
+            for (int d = 0; d < depth; d++) {
+                Node nd = pathNodes[d];
+                int a = pathActions[d];
+                nd.visits++;
+                nd.n[a]++;
+                nd.w[a] += reward[nd.actor];
+            }
+        }
+
+        private void push(int depth, Node node, int a) {
+            if (depth == pathNodes.length) {
+                pathNodes = Arrays.copyOf(pathNodes, depth * 2);
+                pathActions = Arrays.copyOf(pathActions, depth * 2);
+            }
+            pathNodes[depth] = node;
+            pathActions[depth] = a;
+        }
+
+        private int select(Node node) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logN = Math.log(node.visits + 1);
+            for (int a = 0; a < node.actions.length; a++) {
+                if (node.n[a] == 0) {
+                    // untried actions first, in random order
+                    double score = Double.MAX_VALUE - rng.nextDouble();
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = a;
+                    }
+                    continue;
+                }
+                double score = node.w[a] / node.n[a] + EXPLORATION * Math.sqrt(logN / node.n[a]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = a;
+                }
+            }
+            return best;
+        }
+
+        // Deal hidden dice: the bot's own are known, every other seat is re-rolled.
+        private void deal() {
+            Arrays.fill(total, 0);
+            for (int f = 1; f <= 6; f++) {
+                hist[0][f] = table.myHist[f];
+                total[f] = table.myHist[f];
+            }
+            for (int s = 1; s < table.seats; s++) {
+                int[] h = hist[s];
+                Arrays.fill(h, 0);
+                for (int d = 0; d < table.dice[s]; d++) {
+                    int f = 1 + rng.nextInt(6);
+                    h[f]++;
+                    total[f]++;
+                }
+            }
+        }
+
+        // Default policy: every seat plays the odds of its own dice until someone calls.
+        private void rollout(int actor, int bidRank, int bidder) {
+            while (true) {
+                int q = bidRank / 6 + 1;
+                int face = bidRank % 6 + 1;
+                int unknown = table.totalDice - table.dice[actor];
+                int[] h = hist[actor];
+
+                double pTrue = odds.atLeast(unknown, q - matches(h, face), face);
+                int bestRaise = -1;
+                double bestP = 0;
+                for (int f = 1; f <= 6; f++) {
+                    int rq = f > face ? q : q + 1;
+                    if (rq > table.totalDice) continue;
+                    double p = odds.atLeast(unknown, rq - matches(h, f), f);
+                    if (p > bestP) {
+                        bestP = p;
+                        bestRaise = Bid.rankOf(rq, f);
+                    }
+                }
+
+                if (bestRaise < 0 || (pTrue < 0.5 && bestP < 0.5)) {
+                    double pExact = odds.exactly(unknown, q - matches(h, face), face);
+                    resolve(pExact > 1 - pTrue ? EXACT : LIAR, actor, bidRank, bidder);
+                    return;
+                }
+                bidRank = bestRaise;
+                bidder = actor;
+                actor = (actor + 1) % table.seats;
+            }
+        }
+
+        // Same outcomes as RuleEngine.resolveLiar / resolveExact, scored in dice for every seat.
+        private void resolve(int call, int caller, int bidRank, int bidder) {
+            int q = bidRank / 6 + 1;
+            int face = bidRank % 6 + 1;
+            int actual = face == 1 ? total[1] : total[face] + total[1];
+            double share = 1.0 / (table.seats - 1);
+
+            if (call == LIAR) {
+                int loser = actual >= q ? caller : bidder;
+                Arrays.fill(reward, share);
+                reward[loser] = -1;
+                return;
+            }
+            if (actual == q) {
+                Arrays.fill(reward, 0);
+                if (table.dice[bidder] < table.maxDice[bidder]) {
+                    Arrays.fill(reward, -share);
+                    reward[bidder] = 1;
+                }
+                return;
+            }
+            Arrays.fill(reward, share);
+            reward[caller] = -1;
+        }
+
+        private static int matches(int[] h, int face) {
+            return face == 1 ? h[1] : h[face] + h[1];
+        }
+
+        private int[] actions(int bidRank) {
+            int totalDice = table.totalDice;
+            if (bidRank < 0) {
+                // Openings: every face at a low, a middle and a bold quantity.
+                int[] qs = {1, Math.max(1, totalDice / 4), Math.max(1, totalDice / 3)};
+                int[] tmp = new int[18];
+                int k = 0;
+                for (int face = 1; face <= 6; face++) {
+                    int prev = 0;
+                    for (int q : qs) {
+                        if (q == prev) continue;
+                        tmp[k++] = Bid.rankOf(q, face);
+                        prev = q;
+                    }
+                }
+                return Arrays.copyOf(tmp, k);
+            }
+
+            int q = bidRank / 6 + 1;
+            int face = bidRank % 6 + 1;
+            int[] tmp = new int[8];
+            int k = 0;
+            tmp[k++] = LIAR;
+            tmp[k++] = EXACT;
+            for (int f = 1; f <= 6; f++) {
+                int rq = f > face ? q : q + 1;
+                if (rq <= totalDice) tmp[k++] = Bid.rankOf(rq, f);
+            }
+            return Arrays.copyOf(tmp, k);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package perudo.ai;
+
+import perudo.core.*;
+import perudo.players.Player;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks the action with the best expected dice outcome using exact binomial odds for the
+ * unknown dice. Values are in dice: losing one of ours is -1 and an opponent losing one is worth
+ * 1/opponents, so an opponent gaining one is -1/opponents. A correct EXACT gives the die to the
+ * bidder, never to the caller.
+ */
+public final class ProbabilisticBotStrategy implements BotStrategy {
+    private static final double OPENING_CONFIDENCE = 0.55;
+    private static final double BLUFF_RATE = 0.05;
+
+    private final RandomGenerator rnd;
+    private final BinomialTables odds = BinomialTables.shared();
+
+    public ProbabilisticBotStrategy(RandomGenerator rnd) {
+        this.rnd = rnd;
+    }
+
+    @Override
+    public Action choose(Player self, RoundContext ctx) {
+        DiceCup cup = self.cup();
+        int total = ctx.totalDiceInPlay();
+        int unknown = total - self.diceCount();
+        Bid cur = ctx.currentBid();
+
+        if (cur == null) return open(cup, unknown);
+
+        int opponents = Math.max(1, ctx.alivePlayers() - 1);
+        double opponentLoss = 1.0 / opponents;
+
+        double pTrue = odds.atLeast(unknown, cur.quantity() - cup.countMatches(cur.face()), cur.face());
+        double bestValue = liarValue(self, ctx);
+        Action best = Action.liar();
+
+        double exactValue = exactValue(self, ctx);
+        if (exactValue > bestValue) {
+            bestValue = exactValue;
+            best = Action.exact();
+        }
+
+        // Whoever acts next knows only their own dice: roughly total - total/(opponents+1) unknown.
+        int nextUnknown = total - total / (opponents + 1);
+        for (int face = 1; face <= 6; face++) {
+            int q = face > cur.face() ? cur.quantity() : cur.quantity() + 1;
+            double pMine = odds.atLeast(unknown, q - cup.countMatches(face), face);
+            double pCall = 1 - odds.atLeast(nextUnknown, q, face);
+            double value = -(1 - pMine) * pCall + pMine * pCall * opponentLoss;
+            if (value > bestValue) {
+                bestValue = value;
+                best = Action.bid(q, face);
+            }
+        }
+
+        if (best.kind() != ActionKinds.BID && pTrue > 0.25 && rnd.nextDouble() < BLUFF_RATE) {
+            return Action.bid(cur.nextMinimumBid());
+        }
+        return best;
+    }
+
+    // Expected dice value of calling LIAR on the current bid: we lose a die if it holds, the bidder if not.
+    double liarValue(Player self, RoundContext ctx) {
+        Bid cur = ctx.currentBid();
+        int unknown = ctx.totalDiceInPlay() - self.diceCount();
+        double pTrue = odds.atLeast(unknown, cur.quantity() - self.cup().countMatches(cur.face()), cur.face());
+        return -pTrue + (1 - pTrue) / Math.max(1, ctx.alivePlayers() - 1);
+    }
+
+    // Expected dice value of calling EXACT: if it is exact the bidder gains a die (up to its max), if not we lose one.
+    double exactValue(Player self, RoundContext ctx) {
+        Bid cur = ctx.currentBid();
+        int unknown = ctx.totalDiceInPlay() - self.diceCount();
+        double pExact = odds.exactly(unknown, cur.quantity() - self.cup().countMatches(cur.face()), cur.face());
+        Player bidder = ctx.players().get(ctx.lastBidderIndex());
+        double bidderGain = bidder.diceCount() < bidder.cup().maxDice() ? 1.0 / Math.max(1, ctx.alivePlayers() - 1) : 0.0;
+        return -pExact * bidderGain - (1 - pExact);
+    }
+
+    private Action open(DiceCup cup, int unknown) {
+        int bestFace = 2 + rnd.nextInt(5);
+        for (int face = 2; face <= 6; face++) {
+            if (cup.countMatches(face) > cup.countMatches(bestFace)) bestFace = face;
+        }
+        int mine = cup.countMatches(bestFace);
+        int q = 1;
+        while (odds.atLeast(unknown, q + 1 - mine, bestFace) >= OPENING_CONFIDENCE) q++;
+        return Action.bid(q, bestFace);
+    }
+}
@@ -3,12 +3,12 @@ package perudo.ai;
 import perudo.core.*;
 import perudo.players.Player;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public final class SimpleBotStrategy implements BotStrategy {
-    private final Random rnd;
+    private final RandomGenerator rnd;
 
-    public SimpleBotStrategy(Random rnd) {
+    public SimpleBotStrategy(RandomGenerator rnd) {
         this.rnd = rnd;
     }
 
@@ -18,7 +18,7 @@ public final class SimpleBotStrategy implements BotStrategy {
 
         if (cur == null) {
             int face = (rnd.nextDouble() < 0.10) ? 1 : (2 + rnd.nextInt(5));
-            return Action.bid(new Bid(1, face));
+            return Action.bid(1, face);
         }
 
         int totalDice = ctx.totalDiceInPlay();
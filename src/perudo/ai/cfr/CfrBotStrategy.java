@@ -0,0 +1,87 @@
+package perudo.ai.cfr;
+
+import perudo.ai.BotStrategy;
+import perudo.core.*;
+import perudo.players.Player;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays the precomputed CFR strategy when the round is covered by the table (2-3 alive players,
+ * solved dice counts, a state the solver reached) and defers to the fallback strategy otherwise.
+ */
+public final class CfrBotStrategy implements BotStrategy {
+    private final RandomGenerator rnd;
+    private final CfrTable table;
+    private final BotStrategy fallback;
+    private final int[] hist = new int[7];
+
+    public CfrBotStrategy(RandomGenerator rnd, CfrTable table, BotStrategy fallback) {
+        this.rnd = rnd;
+        this.table = table;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String name() {
+        return "CFR";
+    }
+
+    @Override
+    public Action choose(Player self, RoundContext ctx) {
+        Action a = lookup(self, ctx);
+        return a != null ? a : fallback.choose(self, ctx);
+    }
+
+    private Action lookup(Player self, RoundContext ctx) {
+        List<Player> players = ctx.players();
+        int n = players.size();
+        int selfIndex = players.indexOf(self);
+
+        int alive = ctx.alivePlayers();
+        if (alive < 2 || alive > CfrLayout.MAX_PLAYERS) return null;
+
+        int[] dice = new int[alive];
+        int bidderSeat = 0;
+        int s = 0;
+        for (int k = 0; k < n; k++) {
+            int idx = (selfIndex + k) % n;
+            Player p = players.get(idx);
+            if (!p.isAlive()) continue;
+            if (idx == ctx.lastBidderIndex()) bidderSeat = s;
+            dice[s++] = p.diceCount();
+        }
+
+        CfrTable.Section section = table.section(dice);
+        if (section == null) return null;
+        CfrLayout lay = section.layout;
+
+        Bid cur = ctx.currentBid();
+        int bidRank = cur == null ? -1 : cur.rank();
+        if (bidRank >= lay.ranks) return null;
+        if (cur == null) bidderSeat = 0;
+
+        DiceCup cup = self.cup();
+        for (int f = 1; f <= 6; f++) hist[f] = cup.countFace(f);
+        int state = lay.state(lay.handIndex(hist), bidRank, bidderSeat);
+
+        int sum = 0;
+        for (int a = 0; a < lay.actions; a++) sum += table.weight(section, state, a);
+        if (sum == 0) return null;
+
+        int x = rnd.nextInt(sum);
+        for (int a = 0; a < lay.actions; a++) {
+            x -= table.weight(section, state, a);
+            if (x < 0) return toAction(a, bidRank);
+        }
+        return null;
+    }
+
+    private static Action toAction(int a, int bidRank) {
+        if (a == CfrLayout.LIAR) return bidRank < 0 ? null : Action.liar();
+        if (a == CfrLayout.EXACT) return bidRank < 0 ? null : Action.exact();
+        int rank = a - 2;
+        return rank > bidRank ? Action.bid(Bid.ofRank(rank)) : null;
+    }
+}
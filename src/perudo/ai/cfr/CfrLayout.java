@@ -0,0 +1,85 @@
+package perudo.ai.cfr;
+
+import java.util.Arrays;
+
+/**
+ * Indexing of one solved table configuration: the dice counts of the alive players in turn
+ * order, starting with the player to act. A state row is (own hand, current bid, bidder seat)
+ * and holds one probability per action: 0 = LIAR, 1 = EXACT, 2 + rank = bid of that rank.
+ */
+final class CfrLayout {
+    static final int LIAR = 0;
+    static final int EXACT = 1;
+    static final int MAX_PLAYERS = 3;
+
+    final int[] dice;
+    final int players;
+    final int totalDice;
+    final int ranks;
+    final int actions;
+    final int hands;
+    final int states;
+
+    private final int base;
+    private final int[] handByKey;
+
+    CfrLayout(int[] dice) {
+        if (dice.length < 2 || dice.length > MAX_PLAYERS) throw new IllegalArgumentException("2.." + MAX_PLAYERS + " players");
+        this.dice = dice.clone();
+        this.players = dice.length;
+        int t = 0;
+        for (int d : dice) {
+            if (d < 1) throw new IllegalArgumentException("dice must be >= 1");
+            t += d;
+        }
+        this.totalDice = t;
+        this.ranks = t * 6;
+        this.actions = ranks + 2;
+
+        int own = dice[0];
+        this.base = own + 1;
+        int keys = 1;
+        for (int i = 0; i < 6; i++) keys *= base;
+        this.handByKey = new int[keys];
+        Arrays.fill(handByKey, -1);
+        int[] counter = new int[1];
+        enumerate(new int[7], 1, own, counter);
+        this.hands = counter[0];
+        this.states = hands * (ranks + 1) * players;
+    }
+
+    private void enumerate(int[] hist, int face, int left, int[] counter) {
+        if (face == 6) {
+            hist[6] = left;
+            handByKey[key(hist)] = counter[0]++;
+            return;
+        }
+        for (int c = 0; c <= left; c++) {
+            hist[face] = c;
+            enumerate(hist, face + 1, left - c, counter);
+        }
+        hist[face] = 0;
+    }
+
+    private int key(int[] hist) {
+        int k = 0;
+        for (int f = 6; f >= 1; f--) k = k * base + hist[f];
+        return k;
+    }
+
+    // hist[1..6] must sum to dice[0].
+    int handIndex(int[] hist) {
+        return handByKey[key(hist)];
+    }
+
+    // bidRank = -1 before the first bid; bidderSeat is relative to the acting player (0 when no bid).
+    int state(int hand, int bidRank, int bidderSeat) {
+        return (hand * (ranks + 1) + bidRank + 1) * players + bidderSeat;
+    }
+
+    static long configKey(int[] dice) {
+        long k = dice.length;
+        for (int d : dice) k = k * 64 + d;
+        return k;
+    }
+}
@@ -0,0 +1,279 @@
+package perudo.ai.cfr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Offline external-sampling MCCFR over a single round of Perudo for small tables.
+ * Information sets use the CfrLayout abstraction (own hand, current bid, bidder seat), and bids
+ * are limited to the next six ranks (the minimal raise on every face) plus a set of openings.
+ * Configurations that are rotations of each other share information sets, so each rotation class
+ * is one game, solved as an independent task; classes run in parallel.
+ */
+public final class CfrSolver {
+    private static final int OPENING_RANKS = 12;
+    private static final int MAX_RAISE = 6;
+
+    private final int maxDicePerPlayer;
+    private final long iterationsPerClass;
+    private final int threads;
+    private final long seed;
+    private final List<int[]> configs = new ArrayList<>();
+
+    // maxDicePerPlayer is the game's cup size, used to decide whether a correct EXACT gains a die.
+    public CfrSolver(int maxDicePerPlayer, long iterationsPerClass, int threads, long seed) {
+        this.maxDicePerPlayer = maxDicePerPlayer;
+        this.iterationsPerClass = iterationsPerClass;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    // Adds every configuration of `players` players holding 1..maxDiceEach dice.
+    public void addEndgames(int players, int maxDiceEach) {
+        int[] dice = new int[players];
+        Arrays.fill(dice, 1);
+        while (true) {
+            configs.add(dice.clone());
+            int i = 0;
+            while (i < players && dice[i] == maxDiceEach) dice[i++] = 1;
+            if (i == players) return;
+            dice[i]++;
+        }
+    }
+
+    public void solve(Path out) {
+        List<List<int[]>> classes = rotationClasses();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<Long, Strategy>>> futures = new ArrayList<>();
+            for (int c = 0; c < classes.size(); c++) {
+                List<int[]> cls = classes.get(c);
+                long classSeed = seed + 0x9e3779b97f4a7c15L * (c + 1);
+                futures.add(pool.submit(() -> new ClassGame(cls, new SplittableRandom(classSeed)).run(iterationsPerClass)));
+            }
+            Map<Long, Strategy> all = new LinkedHashMap<>();
+            for (Future<Map<Long, Strategy>> f : futures) all.putAll(f.get());
+            write(out, all);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("CFR solve interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("CFR solve failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<List<int[]>> rotationClasses() {
+        Map<Long, List<int[]>> byCanonical = new LinkedHashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int[] cfg : configs) {
+            if (!seen.add(CfrLayout.configKey(cfg))) continue;
+            long canonical = Long.MAX_VALUE;
+            for (int r = 0; r < cfg.length; r++) canonical = Math.min(canonical, CfrLayout.configKey(rotate(cfg, r)));
+            List<int[]> cls = byCanonical.computeIfAbsent(canonical, k -> new ArrayList<>());
+            for (int r = 0; r < cfg.length; r++) {
+                int[] rot = rotate(cfg, r);
+                long k = CfrLayout.configKey(rot);
+                seen.add(k);
+                boolean dup = false;
+                for (int[] x : cls) if (CfrLayout.configKey(x) == k) dup = true;
+                if (!dup) cls.add(rot);
+            }
+        }
+        return new ArrayList<>(byCanonical.values());
+    }
+
+    static int[] rotate(int[] dice, int by) {
+        int[] r = new int[dice.length];
+        for (int i = 0; i < dice.length; i++) r[i] = dice[(i + by) % dice.length];
+        return r;
+    }
+
+    private static final class Strategy {
+        final CfrLayout layout;
+        final float[] regret;
+        final float[] sum;
+
+        Strategy(CfrLayout layout) {
+            this.layout = layout;
+            this.regret = new float[layout.states * layout.actions];
+            this.sum = new float[layout.states * layout.actions];
+        }
+    }
+
+    private final class ClassGame {
+        final List<int[]> starts;
+        final SplittableRandom rng;
+        final Map<Long, Strategy> strategies = new LinkedHashMap<>();
+        final int players;
+        final int[][] hist;
+        final int[] total = new int[7];
+        final int[] handIdx;
+        Strategy[] byActor;
+        int[] dice;
+
+        ClassGame(List<int[]> starts, SplittableRandom rng) {
+            this.starts = starts;
+            this.rng = rng;
+            this.players = starts.get(0).length;
+            this.hist = new int[players][7];
+            this.handIdx = new int[players];
+            for (int[] s : starts) strategies.put(CfrLayout.configKey(s), new Strategy(new CfrLayout(s)));
+        }
+
+        Map<Long, Strategy> run(long iterations) {
+            for (long it = 0; it < iterations; it++) {
+                for (int traverser = 0; traverser < players; traverser++) {
+                    setUp(starts.get(rng.nextInt(starts.size())));
+                    walk(traverser, 0, -1, -1);
+                }
+            }
+            return strategies;
+        }
+
+        private void setUp(int[] start) {
+            dice = start;
+            byActor = new Strategy[players];
+            for (int a = 0; a < players; a++) byActor[a] = strategies.get(CfrLayout.configKey(rotate(start, a)));
+            Arrays.fill(total, 0);
+            for (int p = 0; p < players; p++) {
+                Arrays.fill(hist[p], 0);
+                for (int d = 0; d < start[p]; d++) {
+                    int f = 1 + rng.nextInt(6);
+                    hist[p][f]++;
+                    total[f]++;
+                }
+                handIdx[p] = byActor[p].layout.handIndex(hist[p]);
+            }
+        }
+
+        private double walk(int traverser, int actor, int bidRank, int bidder) {
+            Strategy s = byActor[actor];
+            CfrLayout lay = s.layout;
+            int bidderSeat = bidRank < 0 ? 0 : (bidder - actor + players) % players;
+            int row = lay.state(handIdx[actor], bidRank, bidderSeat) * lay.actions;
+
+            int[] legal = legalActions(lay, bidRank);
+            double[] sigma = new double[legal.length];
+            double pos = 0;
+            for (int i = 0; i < legal.length; i++) {
+                double r = s.regret[row + legal[i]];
+                sigma[i] = r > 0 ? r : 0;
+                pos += sigma[i];
+            }
+            for (int i = 0; i < legal.length; i++) sigma[i] = pos > 0 ? sigma[i] / pos : 1.0 / legal.length;
+
+            if (actor == traverser) {
+                double[] u = new double[legal.length];
+                double node = 0;
+                for (int i = 0; i < legal.length; i++) {
+                    u[i] = play(traverser, actor, bidRank, bidder, legal[i]);
+                    node += sigma[i] * u[i];
+                }
+                for (int i = 0; i < legal.length; i++) s.regret[row + legal[i]] += (float) (u[i] - node);
+                return node;
+            }
+
+            for (int i = 0; i < legal.length; i++) s.sum[row + legal[i]] += (float) sigma[i];
+            double x = rng.nextDouble();
+            int pick = legal.length - 1;
+            for (int i = 0; i < legal.length; i++) {
+                x -= sigma[i];
+                if (x < 0) {
+                    pick = i;
+                    break;
+                }
+            }
+            return play(traverser, actor, bidRank, bidder, legal[pick]);
+        }
+
+        private double play(int traverser, int actor, int bidRank, int bidder, int action) {
+            if (action == CfrLayout.LIAR || action == CfrLayout.EXACT) {
+                return payoff(traverser, action, actor, bidRank, bidder);
+            }
+            return walk(traverser, (actor + 1) % players, action - 2, actor);
+        }
+
+        // Same outcomes as RuleEngine.resolveLiar / resolveExact, in dice for the traverser.
+        private double payoff(int traverser, int call, int caller, int bidRank, int bidder) {
+            int q = bidRank / 6 + 1;
+            int face = bidRank % 6 + 1;
+            int actual = face == 1 ? total[1] : total[face] + total[1];
+            double share = 1.0 / (players - 1);
+
+            if (call == CfrLayout.LIAR) {
+                int loser = actual >= q ? caller : bidder;
+                return traverser == loser ? -1 : share;
+            }
+            if (actual == q) {
+                if (dice[bidder] >= maxDicePerPlayer) return 0;
+                return traverser == bidder ? 1 : -share;
+            }
+            return traverser == caller ? -1 : share;
+        }
+
+        private int[] legalActions(CfrLayout lay, int bidRank) {
+            if (bidRank < 0) {
+                int n = Math.min(OPENING_RANKS, lay.ranks);
+                int[] a = new int[n];
+                for (int r = 0; r < n; r++) a[r] = 2 + r;
+                return a;
+            }
+            int hi = Math.min(lay.ranks - 1, bidRank + MAX_RAISE);
+            int raises = Math.max(0, hi - bidRank);
+            int[] a = new int[2 + raises];
+            a[0] = CfrLayout.LIAR;
+            a[1] = CfrLayout.EXACT;
+            for (int i = 0; i < raises; i++) a[2 + i] = 2 + bidRank + 1 + i;
+            return a;
+        }
+    }
+
+    private static void write(Path out, Map<Long, Strategy> all) {
+        List<Strategy> list = new ArrayList<>(all.values());
+        long dataStart = CfrTable.HEADER_SIZE + (long) list.size() * CfrTable.ENTRY_SIZE;
+
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer head = ByteBuffer.allocate((int) dataStart).order(ByteOrder.LITTLE_ENDIAN);
+            head.putLong(CfrTable.MAGIC).putInt(CfrTable.VERSION).putInt(list.size());
+            long offset = dataStart;
+            for (Strategy s : list) {
+                int start = head.position();
+                head.putInt(s.layout.players);
+                for (int p = 0; p < 3; p++) head.putInt(p < s.layout.players ? s.layout.dice[p] : 0);
+                head.putLong(offset);
+                head.position(start + CfrTable.ENTRY_SIZE);
+                offset += (long) s.layout.states * s.layout.actions;
+            }
+            head.flip();
+            while (head.hasRemaining()) ch.write(head);
+
+            for (Strategy s : list) {
+                int na = s.layout.actions;
+                ByteBuffer rows = ByteBuffer.allocate(s.layout.states * na);
+                for (int st = 0; st < s.layout.states; st++) {
+                    int row = st * na;
+                    double sum = 0;
+                    for (int a = 0; a < na; a++) sum += s.sum[row + a];
+                    for (int a = 0; a < na; a++) {
+                        int w = sum > 0 ? (int) Math.round(255 * s.sum[row + a] / sum) : 0;
+                        rows.put((byte) w);
+                    }
+                }
+                rows.flip();
+                while (rows.hasRemaining()) ch.write(rows);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("CFR table write failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package perudo.ai.cfr;
+
+import java.nio.file.Path;
+
+public final class CfrSolverMain {
+    private CfrSolverMain() {}
+
+    // args: <out file> [iterationsPerClass] [threads] [seed]
+    // Solves heads-up endgames with 1..3 dice each and three-player endgames with 1..2 dice each.
+    public static void main(String[] args) {
+        if (args.length < 1) throw new IllegalArgumentException("usage: <out file> [iterationsPerClass] [threads] [seed]");
+        Path out = Path.of(args[0]);
+        long iterations = args.length > 1 ? Long.parseLong(args[1]) : 200_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        CfrSolver solver = new CfrSolver(5, iterations, threads, seed);
+        solver.addEndgames(2, 3);
+        solver.addEndgames(3, 2);
+
+        long start = System.nanoTime();
+        solver.solve(out);
+        CfrTable table = CfrTable.load(out);
+        System.out.printf("Wrote %s: %d configurations in %.1fs%n", out, table.configs(), (System.nanoTime() - start) / 1e9);
+    }
+}
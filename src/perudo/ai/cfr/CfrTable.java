@@ -0,0 +1,78 @@
+package perudo.ai.cfr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * File layout (little-endian):
+ *   long  magic "PRDCFR01"
+ *   int   version
+ *   int   config count
+ *   per config (32 bytes): int players, int dice[3] (unused seats 0), long data offset, long reserved
+ *   data: for each config, states x actions unsigned bytes; a row's bytes are action weights
+ *         summing to about 255, or all zero for states the solver never reached
+ */
+public final class CfrTable {
+    static final long MAGIC = 0x3130524643445250L; // "PRDCFR01"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 32;
+
+    private final MappedByteBuffer data;
+    private final Map<Long, Section> sections = new HashMap<>();
+
+    static final class Section {
+        final CfrLayout layout;
+        final long offset;
+
+        Section(CfrLayout layout, long offset) {
+            this.layout = layout;
+            this.offset = offset;
+        }
+    }
+
+    private CfrTable(MappedByteBuffer data) {
+        this.data = data;
+    }
+
+    public static CfrTable load(Path file) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IllegalStateException("table too large: " + file);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getLong(0) != MAGIC) throw new IllegalStateException("not a CFR table: " + file);
+            if (map.getInt(8) != VERSION) throw new IllegalStateException("unsupported CFR table version in " + file);
+
+            CfrTable table = new CfrTable(map);
+            int count = map.getInt(12);
+            for (int i = 0; i < count; i++) {
+                int e = HEADER_SIZE + i * ENTRY_SIZE;
+                int players = map.getInt(e);
+                int[] dice = new int[players];
+                for (int p = 0; p < players; p++) dice[p] = map.getInt(e + 4 + p * 4);
+                long offset = map.getLong(e + 16);
+                table.sections.put(CfrLayout.configKey(dice), new Section(new CfrLayout(dice), offset));
+            }
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException("CFR table load failed: " + e.getMessage(), e);
+        }
+    }
+
+    public int configs() { return sections.size(); }
+
+    Section section(int[] dice) {
+        return sections.get(CfrLayout.configKey(dice));
+    }
+
+    int weight(Section s, int state, int action) {
+        return data.get((int) (s.offset + (long) state * s.layout.actions + action)) & 0xff;
+    }
+}
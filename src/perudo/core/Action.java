@@ -1,6 +1,23 @@
 package perudo.core;
 
 public final class Action {
+    private static final Action LIAR = new Action(ActionKinds.LIAR, null, -1);
+    private static final Action EXACT = new Action(ActionKinds.EXACT, null, -1);
+    private static final Action BONUS_REROLL = new Action(ActionKinds.BONUS_REROLL, null, -1);
+
+    private static final int CACHED_PEEK_TARGETS = 16;
+    private static final Action[] BONUS_PEEK = new Action[CACHED_PEEK_TARGETS];
+    private static final Action[] BIDS = new Action[Bid.MAX_CACHED_QUANTITY * 6];
+
+    static {
+        for (int i = 0; i < BONUS_PEEK.length; i++) {
+            BONUS_PEEK[i] = new Action(ActionKinds.BONUS_PEEK, null, i);
+        }
+        for (int r = 0; r < BIDS.length; r++) {
+            BIDS[r] = new Action(ActionKinds.BID, Bid.ofRank(r), -1);
+        }
+    }
+
     private final int kind;
     private final Bid bid; 
     private final int target;
@@ -13,22 +30,29 @@ public final class Action {
 
     public static Action bid(Bid bid) {
         if (bid == null) throw new IllegalArgumentException("bid cannot be null");
+        int r = bid.rank();
+        if (r < BIDS.length && BIDS[r].bid == bid) return BIDS[r];
         return new Action(ActionKinds.BID, bid, -1);
     }
 
+    public static Action bid(int quantity, int face) {
+        return bid(Bid.of(quantity, face));
+    }
+
     public static Action liar() {
-        return new Action(ActionKinds.LIAR, null, -1);
+        return LIAR;
     }
 
     public static Action exact() {
-        return new Action(ActionKinds.EXACT, null, -1);
+        return EXACT;
     }
 
     public static Action bonusReroll() {
-        return new Action(ActionKinds.BONUS_REROLL, null, -1);
+        return BONUS_REROLL;
     }
 
     public static Action bonusPeek(int targetPlayerIndex) {
+        if (targetPlayerIndex >= 0 && targetPlayerIndex < CACHED_PEEK_TARGETS) return BONUS_PEEK[targetPlayerIndex];
         return new Action(ActionKinds.BONUS_PEEK, null, targetPlayerIndex);
     }
 
@@ -36,4 +60,3 @@ public final class Action {
     public Bid bid() { return bid; }
     public int target() { return target; }
 }
-
@@ -1,27 +1,71 @@
 package perudo.core;
 
 public final class Bid {
+    // Bids up to this quantity are pre-built; override with -Dperudo.bid.maxQuantity=N.
+    public static final int MAX_CACHED_QUANTITY = Math.max(1, Integer.getInteger("perudo.bid.maxQuantity", 200));
+
+    private static final Bid[] CACHE = new Bid[MAX_CACHED_QUANTITY * 6];
+
+    static {
+        for (int q = 1; q <= MAX_CACHED_QUANTITY; q++) {
+            for (int f = 1; f <= 6; f++) {
+                CACHE[rankOf(q, f)] = new Bid(q, f);
+            }
+        }
+    }
+
     private final int quantity;
     private final int face;
+    private final int rank;
 
     public Bid(int quantity, int face) {
         if (quantity < 1) throw new IllegalArgumentException("quantity must be >= 1");
         if (face < 1 || face > 6) throw new IllegalArgumentException("face must be 1..6");
         this.quantity = quantity;
         this.face = face;
+        this.rank = rankOf(quantity, face);
+    }
+
+    public static Bid of(int quantity, int face) {
+        if (quantity >= 1 && quantity <= MAX_CACHED_QUANTITY && face >= 1 && face <= 6) {
+            return CACHE[rankOf(quantity, face)];
+        }
+        return new Bid(quantity, face);
+    }
+
+    public static Bid ofRank(int rank) {
+        if (rank < 0) throw new IllegalArgumentException("rank must be >= 0");
+        if (rank < CACHE.length) return CACHE[rank];
+        return new Bid(rank / 6 + 1, rank % 6 + 1);
+    }
+
+    // Dense ordinal: (1 x 1) = 0, (1 x 2) = 1, ..., (2 x 1) = 6. Higher bids have higher ranks.
+    public static int rankOf(int quantity, int face) {
+        return (quantity - 1) * 6 + (face - 1);
     }
 
     public int quantity() { return quantity; }
     public int face() { return face; }
+    public int rank() { return rank; }
 
     public boolean isHigherThan(Bid other) {
-        if (this.quantity != other.quantity) return this.quantity > other.quantity;
-        return this.face > other.face;
+        return rank > other.rank;
     }
 
     public Bid nextMinimumBid() {
-        if (face < 6) return new Bid(quantity, face + 1);
-        return new Bid(quantity + 1, 1);
+        return ofRank(rank + 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Bid)) return false;
+        return rank == ((Bid) o).rank;
+    }
+
+    @Override
+    public int hashCode() {
+        return rank;
     }
 
     @Override
@@ -29,4 +73,3 @@ public final class Bid {
         return quantity + " x " + face + "'s";
     }
 }
-
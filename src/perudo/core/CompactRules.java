@@ -0,0 +1,35 @@
+package perudo.core;
+
+/**
+ * RuleEngine's LIAR / EXACT resolution on a CompactState. Outcomes, dice changes and the next
+ * starter are the same as RuleEngine.resolveLiar / resolveExact for the same table.
+ */
+public final class CompactRules {
+    private CompactRules() {}
+
+    // Returns the seat that lost a die.
+    public static int resolveLiar(CompactState s, int callerIndex) {
+        if (s.bidRank < 0) throw new IllegalStateException("no bid to call");
+        int quantity = s.bidRank / 6 + 1;
+        int actual = s.countMatchesTotal(s.bidRank % 6 + 1);
+        int loser = actual >= quantity ? callerIndex : s.lastBidder;
+        s.setDice(loser, Math.max(0, s.diceCount[loser] - 1));
+        s.nextStarter = loser;
+        return loser;
+    }
+
+    // Returns true if the bid was exact (the bidder gains a die up to max), false if the caller lost one.
+    public static boolean resolveExact(CompactState s, int callerIndex) {
+        if (s.bidRank < 0) throw new IllegalStateException("no bid to call");
+        int quantity = s.bidRank / 6 + 1;
+        int actual = s.countMatchesTotal(s.bidRank % 6 + 1);
+        s.nextStarter = callerIndex;
+        if (actual == quantity) {
+            int bidder = s.lastBidder;
+            s.setDice(bidder, Math.min(s.seatMax[bidder], s.diceCount[bidder] + 1));
+            return true;
+        }
+        s.setDice(callerIndex, Math.max(0, s.diceCount[callerIndex] - 1));
+        return false;
+    }
+}
@@ -0,0 +1,165 @@
+package perudo.core;
+
+import perudo.players.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * One table's state in flat primitive arrays: dice counts, all faces in a single seat-major byte array,
+ * alive seats as a bitset and the current bid as its rank. Each seat has its own cup size up to maxDice. Meant for search and simulation code that
+ * copies and mutates tables millions of times; CompactRules resolves calls on it like RuleEngine.
+ */
+public final class CompactState {
+    private final int seats;
+    private final int maxDice;
+    final byte[] diceCount;
+    final byte[] seatMax;
+    final byte[] faces;
+    final int[] faceTotals = new int[7];
+    long aliveMask;
+    int bidRank = -1;
+    int lastBidder = -1;
+    int nextStarter;
+
+    public CompactState(int seats, int maxDice) {
+        if (seats < 2 || seats > SeatTracker.MAX_SEATS) throw new IllegalArgumentException("seats must be 2.." + SeatTracker.MAX_SEATS);
+        if (maxDice < 1 || maxDice > Byte.MAX_VALUE) throw new IllegalArgumentException("maxDice must be 1.." + Byte.MAX_VALUE);
+        this.seats = seats;
+        this.maxDice = maxDice;
+        this.diceCount = new byte[seats];
+        this.seatMax = new byte[seats];
+        this.faces = new byte[seats * maxDice];
+        Arrays.fill(diceCount, (byte) maxDice);
+        Arrays.fill(seatMax, (byte) maxDice);
+        this.aliveMask = seats == 64 ? -1L : (1L << seats) - 1;
+    }
+
+    // Snapshot of a live table, including every cup's current dice.
+    public static CompactState of(RoundContext ctx) {
+        List<Player> players = ctx.players();
+        int maxDice = 1;
+        for (Player p : players) maxDice = Math.max(maxDice, p.cup().maxDice());
+        CompactState s = new CompactState(players.size(), maxDice);
+        s.aliveMask = 0;
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            DiceCup cup = p.cup();
+            s.seatMax[i] = (byte) cup.maxDice();
+            s.setDice(i, p.diceCount());
+            for (int d = 0; d < cup.size(); d++) {
+                int f = cup.die(d);
+                s.faces[i * maxDice + d] = (byte) f;
+                s.faceTotals[f]++;
+            }
+        }
+        Bid bid = ctx.currentBid();
+        s.bidRank = bid == null ? -1 : bid.rank();
+        s.lastBidder = ctx.lastBidderIndex();
+        s.nextStarter = ctx.nextStarterIndex();
+        return s;
+    }
+
+    public CompactState copy() {
+        CompactState c = new CompactState(seats, maxDice);
+        c.copyFrom(this);
+        return c;
+    }
+
+    // Overwrites this state with other's; both must have the same shape. Allocation-free.
+    public void copyFrom(CompactState other) {
+        if (other.seats != seats || other.maxDice != maxDice) throw new IllegalArgumentException("state shape mismatch");
+        System.arraycopy(other.diceCount, 0, diceCount, 0, seats);
+        System.arraycopy(other.seatMax, 0, seatMax, 0, seats);
+        System.arraycopy(other.faces, 0, faces, 0, faces.length);
+        System.arraycopy(other.faceTotals, 0, faceTotals, 0, 7);
+        aliveMask = other.aliveMask;
+        bidRank = other.bidRank;
+        lastBidder = other.lastBidder;
+        nextStarter = other.nextStarter;
+    }
+
+    public int seats() { return seats; }
+    public int maxDice() { return maxDice; }
+    public int maxDice(int seat) { return seatMax[seat]; }
+    public int dice(int seat) { return diceCount[seat]; }
+    public int face(int seat, int die) { return faces[seat * maxDice + die]; }
+    public long aliveMask() { return aliveMask; }
+    public int aliveCount() { return Long.bitCount(aliveMask); }
+    public boolean isAlive(int seat) { return (aliveMask & (1L << seat)) != 0; }
+    public int bidRank() { return bidRank; }
+    public int lastBidder() { return lastBidder; }
+    public int nextStarter() { return nextStarter; }
+
+    public int totalDice() {
+        int t = 0;
+        for (int i = 0; i < seats; i++) t += diceCount[i];
+        return t;
+    }
+
+    public int nextAlive(int fromIndex) {
+        long higher = fromIndex >= 63 ? 0 : aliveMask & (-1L << (fromIndex + 1));
+        if (higher != 0) return Long.numberOfTrailingZeros(higher);
+        if (aliveMask != 0) return Long.numberOfTrailingZeros(aliveMask);
+        return fromIndex;
+    }
+
+    // Sets one seat's cup size; its current dice are capped to the new size.
+    public void setMaxDice(int seat, int max) {
+        if (max < 1 || max > maxDice) throw new IllegalArgumentException("max must be 1.." + maxDice);
+        if (diceCount[seat] > max) setDice(seat, max);
+        seatMax[seat] = (byte) max;
+    }
+
+    // Dice taken away leave their slots empty (0) and drop out of the face totals.
+    public void setDice(int seat, int count) {
+        if (count < 0 || count > seatMax[seat]) throw new IllegalArgumentException("count must be 0.." + seatMax[seat]);
+        int base = seat * maxDice;
+        for (int d = count; d < diceCount[seat]; d++) {
+            int f = faces[base + d];
+            if (f == 0) continue;
+            faceTotals[f]--;
+            faces[base + d] = 0;
+        }
+        diceCount[seat] = (byte) count;
+        if (count > 0) aliveMask |= 1L << seat;
+        else aliveMask &= ~(1L << seat);
+    }
+
+    // Starts a new round: clears the bid and re-rolls every alive seat.
+    public void newRound(RandomGenerator rnd) {
+        bidRank = -1;
+        lastBidder = -1;
+        for (int i = 0; i < seats; i++) rollSeat(i, rnd);
+        Arrays.fill(faceTotals, 0);
+        FaceCounting.count(faces, 0, faces.length, faceTotals);
+    }
+
+    // Re-rolls one seat's dice, e.g. to deal hidden dice in a determinization.
+    public void rerollSeat(int seat, RandomGenerator rnd) {
+        int base = seat * maxDice;
+        int n = diceCount[seat];
+        for (int d = 0; d < n; d++) faceTotals[faces[base + d]]--;
+        rollSeat(seat, rnd);
+        for (int d = 0; d < n; d++) faceTotals[faces[base + d]]++;
+    }
+
+    private void rollSeat(int seat, RandomGenerator rnd) {
+        int base = seat * maxDice;
+        int n = diceCount[seat];
+        for (int d = 0; d < n; d++) faces[base + d] = (byte) (1 + rnd.nextInt(6));
+        // unused slots stay 0 so the whole array can be counted in one pass
+        Arrays.fill(faces, base + n, base + maxDice, (byte) 0);
+    }
+
+    public void bid(int rank, int bidder) {
+        if (bidRank >= 0 && rank <= bidRank) throw new IllegalArgumentException("bid must be higher than current bid");
+        bidRank = rank;
+        lastBidder = bidder;
+    }
+
+    public int countMatchesTotal(int face) {
+        return face == 1 ? faceTotals[1] : faceTotals[face] + faceTotals[1];
+    }
+}
@@ -1,33 +1,67 @@
 package perudo.core;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public final class DiceCup {
     private final int maxDice;
-    private final Random rnd;
-    private final List<Integer> dice = new ArrayList<>();
+    private final RandomGenerator rnd;
+    private final byte[] dice;
+    private final int[] faceCounts = new int[7];
+    private int size;
 
-    public DiceCup(int maxDice, Random rnd) {
+    public DiceCup(int maxDice, RandomGenerator rnd) {
         this.maxDice = maxDice;
         this.rnd = rnd;
+        this.dice = new byte[maxDice];
     }
 
     public int maxDice() { return maxDice; }
 
     public void roll(int count) {
-        dice.clear();
+        if (count < 0 || count > maxDice) throw new IllegalArgumentException("count must be 0.." + maxDice);
+        Arrays.fill(faceCounts, 0);
         for (int i = 0; i < count; i++) {
-            dice.add(1 + rnd.nextInt(6));
+            int face = 1 + rnd.nextInt(6);
+            dice[i] = (byte) face;
+            faceCounts[face]++;
         }
+        size = count;
+    }
+
+    public int size() { return size; }
+
+    public int die(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("die " + i + " of " + size);
+        return dice[i];
+    }
+
+    public int countFace(int face) {
+        return faceCounts[face];
+    }
+
+    public int countMatches(int face) {
+        return face == 1 ? faceCounts[1] : faceCounts[face] + faceCounts[1];
+    }
+
+    public void addFaceCountsTo(int[] totals) {
+        for (int f = 1; f <= 6; f++) totals[f] += faceCounts[f];
     }
 
     public List<Integer> dice() {
-        return Collections.unmodifiableList(dice);
+        List<Integer> res = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) res.add((int) dice[i]);
+        return Collections.unmodifiableList(res);
     }
 
     public String sortedString() {
-        List<Integer> copy = new ArrayList<>(dice);
-        Collections.sort(copy);
-        return copy.toString();
+        StringBuilder sb = new StringBuilder("[");
+        for (int f = 1; f <= 6; f++) {
+            for (int k = 0; k < faceCounts[f]; k++) {
+                if (sb.length() > 1) sb.append(", ");
+                sb.append(f);
+            }
+        }
+        return sb.append(']').toString();
     }
 }
@@ -0,0 +1,57 @@
+package perudo.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Bulk face counting over packed dice arrays (one byte per die, 0 = empty slot).
+ * Uses the Vector API when the build included it (mvn -Psimd) and the JVM runs with
+ * --add-modules jdk.incubator.vector, unless -Dperudo.simd=false; otherwise a scalar loop.
+ */
+public final class FaceCounting {
+    private static final MethodHandle VECTOR = vectorCount();
+
+    private FaceCounting() {}
+
+    public static boolean simdEnabled() { return VECTOR != null; }
+
+    // VectorFaceCounting.count, or null when SIMD is off, the module is missing or the class was not compiled.
+    private static MethodHandle vectorCount() {
+        if ("false".equals(System.getProperty("perudo.simd"))) return null;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return MethodHandles.lookup().findStatic(Class.forName("perudo.core.VectorFaceCounting"), "count",
+                    MethodType.methodType(void.class, byte[].class, int.class, int.class, int[].class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // Adds the number of dice showing each face 1..6 in faces[from, to) to totals[1..6].
+    public static void count(byte[] faces, int from, int to, int[] totals) {
+        if (VECTOR == null) {
+            countScalar(faces, from, to, totals);
+            return;
+        }
+        try {
+            VECTOR.invokeExact(faces, from, to, totals);
+        } catch (Throwable t) {
+            throw new IllegalStateException("vector face count failed", t);
+        }
+    }
+
+    public static void countScalar(byte[] faces, int from, int to, int[] totals) {
+        // empty slots land in totals[0]; put it back instead of branching per die
+        int empty = totals[0];
+        for (int i = from; i < to; i++) totals[faces[i]]++;
+        totals[0] = empty;
+    }
+
+    // Matches for every bid face at once, ones wild: out[1] = ones, out[f] = f + ones.
+    public static void countMatches(byte[] faces, int from, int to, int[] out) {
+        java.util.Arrays.fill(out, 0);
+        count(faces, from, to, out);
+        for (int f = 2; f <= 6; f++) out[f] += out[1];
+    }
+}
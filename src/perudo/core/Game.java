@@ -3,65 +3,151 @@ package perudo.core;
 import perudo.accounts.*;
 import perudo.ai.*;
 import perudo.db.DbConfig;
+import perudo.eventlog.EventKinds;
+import perudo.eventlog.EventLogWriter;
+import perudo.eventlog.MatchIds;
+import perudo.jfr.BonusConsumedEvent;
+import perudo.jfr.RoundEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
 import perudo.players.*;
-import perudo.ui.ConsoleUI;
+import perudo.ui.GameUI;
+import perudo.ui.SilentUI;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class Game {
     private final List<Player> players;
-    private final ConsoleUI ui;
+    private final GameUI ui;
     private final RuleEngine rules;
+    private final RoundContext roundContext;
+    private final boolean verbose;
     private final PgBonusRepository bonusRepo;
     private int currentIndex;
+    private int roundsPlayed;
+    private LongAdder turnCounter;
     private final PgAccountRepository accountRepo;
-    private Game(List<Player> players, ConsoleUI ui, RuleEngine rules, PgBonusRepository bonusRepo, int startIndex, PgAccountRepository accountRepo) {
+    private EventLogWriter eventLog;
+    // replaced by the event log's id when the match is logged; also keys the win reward
+    private long matchId = MatchIds.next();
+    private final int[] diceBefore;
+    private Game(List<Player> players, GameUI ui, RuleEngine rules, PgBonusRepository bonusRepo, int startIndex, PgAccountRepository accountRepo) {
         this.players = players;
         this.ui = ui;
         this.rules = rules;
+        this.roundContext = new RoundContext(players);
+        roundContext.bind();
+        this.verbose = !ui.isSilent();
         this.bonusRepo = bonusRepo;
         this.currentIndex = startIndex;
         this.accountRepo = accountRepo;
+        this.diceBefore = new int[players.size()];
+    }
+
+    public void setEventLog(EventLogWriter eventLog, long matchId) {
+        this.eventLog = eventLog;
+        this.matchId = matchId;
     }
     private static final int WIN_REWARD_COINS = 100;
-    public void play() {
+    private static final LatencyHistogram ROUND_TIME = Metrics.histogram("game.round");
+    private static final LatencyHistogram TURN_BID = Metrics.histogram("game.turn.bid");
+    private static final LatencyHistogram TURN_LIAR = Metrics.histogram("game.turn.liar");
+    private static final LatencyHistogram TURN_EXACT = Metrics.histogram("game.turn.exact");
+    private static final LatencyHistogram TURN_REROLL = Metrics.histogram("game.turn.bonus_reroll");
+    private static final LatencyHistogram TURN_PEEK = Metrics.histogram("game.turn.bonus_peek");
+    private static final LatencyHistogram TURN_OTHER = Metrics.histogram("game.turn.other");
+    public Player play() {
         ui.println("=== PERUDO (Liar's Dice) ===");
+        record(EventKinds.MATCH_START, -1, 0, players.size(), currentIndex);
 
         while (alivePlayers() > 1) {
             playRound();
+            roundsPlayed++;
         }
 
         Player winner = players.stream().filter(Player::isAlive).findFirst().orElse(null);
         ui.println("\nWinner: " + (winner != null ? winner.name() : "nobody"));
+        record(EventKinds.MATCH_END, players.indexOf(winner), 0, roundsPlayed, 0);
+        if (bonusRepo != null) bonusRepo.flushConsumptionsSoon();
 
-        if (winner instanceof HumanPlayer) {
+        if (winner instanceof HumanPlayer && accountRepo != null) {
             HumanPlayer hp = (HumanPlayer) winner;
             long accountId = hp.wallet().getAccountId();
 
-            accountRepo.addCoins(accountId, WIN_REWARD_COINS);
-            ui.println("Reward: +" + WIN_REWARD_COINS + " coins to " + winner.name());
+            if (hp.replaced()) ui.println("No reward: " + winner.name() + "'s dice were played by a bot.");
+            else payReward(winner, accountId);
         }
+        return winner;
     }
 
-    private void playRound() {
-        ui.println("\n--- New Round ---");
-        RoundContext ctx = new RoundContext(players);
+    public int roundsPlayed() { return roundsPlayed; }
+
+    // Settled in a batch with other tables, but the winner is only told once the database has it;
+    // the match id keys the credit so settling the same match again never pays twice.
+    private void payReward(Player winner, long accountId) {
+        RewardSettlement settlement = RewardSettlement.shared();
+        CompletableFuture<Boolean> paid = settlement.credit(RewardSettlement.matchKey(matchId, accountId), accountId, WIN_REWARD_COINS);
+        settlement.flushSoon();
+        try {
+            if (paid.get(5, TimeUnit.SECONDS)) ui.println("Reward: +" + WIN_REWARD_COINS + " coins to " + winner.name());
+            else ui.println("Reward for this match was already paid to " + winner.name());
+        } catch (ExecutionException e) {
+            ui.println("Reward could not be paid: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            ui.println("Reward of +" + WIN_REWARD_COINS + " coins to " + winner.name() + " is not confirmed yet (database unavailable).");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        for (Player p : players) {
-            if (p.isAlive()) p.roll();
+    public void setTurnCounter(LongAdder turnCounter) {
+        this.turnCounter = turnCounter;
+    }
+
+    void playRound() {
+        long roundStart = Metrics.start();
+        RoundEvent roundEvent = new RoundEvent();
+        roundEvent.begin();
+        if (verbose) ui.println("\n--- New Round ---");
+        RoundContext ctx = roundContext;
+        ctx.reset();
+        int aliveAtStart = ctx.alivePlayers();
+        int diceAtStart = ctx.totalDiceInPlay();
+        int turns = 0;
+
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            if (p.isAlive()) {
+                p.roll();
+                recordRoll(i);
+            }
         }
 
-        for (Player p : players) {
-            if (p.isAlive() && p instanceof HumanPlayer) {
-                ui.println(p.name() + " dice: " + p.cup().sortedString());
+        if (verbose) {
+            for (Player p : players) {
+                if (p.isAlive() && p instanceof HumanPlayer) {
+                    uiFor(p).println(p.name() + " dice: " + p.cup().sortedString());
+                }
             }
         }
 
         int turn = currentIndex;
 
         boolean repeatSamePlayer = false;
+        long turnStart = 0;
+        int lastKind = 0;
 
         while (true) {
+            // a turn is timed from its prompt until the next turn starts or the round ends
+            if (Metrics.ENABLED) {
+                if (lastKind != 0) turnTime(lastKind).recordSince(turnStart);
+                turnStart = System.nanoTime();
+            }
             if (!repeatSamePlayer) {
                 turn = nextAliveIndex(turn);
             } else {
@@ -69,11 +155,14 @@ public final class Game {
             }
 
             Player p = players.get(turn);
+            if (turnCounter != null) turnCounter.increment();
 
-            ui.println("\nTurn: " + p.name() + " (dice: " + p.diceCount() + ")");
-            ui.println("Current bid: " + (ctx.currentBid() == null ? "none" : ctx.currentBid()));
+            if (verbose) ui.println("\nTurn: " + p.name() + " (dice: " + p.diceCount() + ")");
+            if (verbose) ui.println("Current bid: " + (ctx.currentBid() == null ? "none" : ctx.currentBid()));
 
             Action action = p.chooseAction(ctx, ui);
+            lastKind = action.kind();
+            turns++;
 
             if (action.kind() == ActionKinds.BONUS_REROLL) {
                 if (!(p instanceof HumanPlayer)) {
@@ -85,24 +174,19 @@ public final class Game {
                 HumanPlayer hp = (HumanPlayer) p;
                 PlayerWallet w = hp.wallet();
 
-                if (!w.canUseReroll()) {
+                if (!w.reserveReroll()) {
                     ui.println("REROLL not available (0 in inventory or already used this match).");
                     repeatSamePlayer = true;
                     continue;
                 }
-
-                boolean consumed = bonusRepo.consumeOne(w.getAccountId(), BonusKinds.reroll);
-                if (!consumed) {
-                    ui.println("REROLL not available in DB (inventory desync).");
-                    repeatSamePlayer = true;
-                    continue;
-                }
-
-                w.decrementRerollLocal();
-                w.markRerollUsed();
+                consumeBonus(w.getAccountId(), BonusKinds.reroll);
 
                 p.roll();
-                ui.println(p.name() + " used REROLL. New dice: " + p.cup().sortedString());
+                ctx.invalidateDiceTotals();
+                record(EventKinds.BONUS_REROLL, turn, 0, -1, 0);
+                recordRoll(turn);
+                ui.println(p.name() + " used REROLL.");
+                uiFor(p).println("New dice: " + p.cup().sortedString());
 
                 repeatSamePlayer = true;
                 continue;
@@ -124,12 +208,6 @@ public final class Game {
                 HumanPlayer hp = (HumanPlayer) p;
                 PlayerWallet w = hp.wallet();
 
-                if (!w.canUsePeek()) {
-                    ui.println("PEEK not available (0 in inventory or already used this match).");
-                    repeatSamePlayer = true;
-                    continue;
-                }
-
                 int target = action.target();
                 if (target < 0 || target >= ctx.players().size()) {
                     ui.println("Invalid peek target.");
@@ -142,18 +220,16 @@ public final class Game {
                     continue;
                 }
 
-                boolean consumed = bonusRepo.consumeOne(w.getAccountId(), BonusKinds.peek);
-                if (!consumed) {
-                    ui.println("PEEK not available in DB (inventory desync).");
+                if (!w.reservePeek()) {
+                    ui.println("PEEK not available (0 in inventory or already used this match).");
                     repeatSamePlayer = true;
                     continue;
                 }
-
-                w.decrementPeekLocal();
-                w.markPeekUsed();
+                consumeBonus(w.getAccountId(), BonusKinds.peek);
+                record(EventKinds.BONUS_PEEK, turn, 0, target, 0);
 
                 ui.println(p.name() + " used PEEK.");
-                ui.println("Peek " + ctx.players().get(target).name() + " dice: " +
+                uiFor(p).println("Peek " + ctx.players().get(target).name() + " dice: " +
                         ctx.players().get(target).cup().sortedString());
 
                 repeatSamePlayer = true;
@@ -173,7 +249,8 @@ public final class Game {
                 }
 
                 ctx.setBid(bid, turn);
-                ui.println(p.name() + " bids: " + bid);
+                record(EventKinds.BID, turn, 0, bid.quantity(), bid.face());
+                if (verbose) ui.println(p.name() + " bids: " + bid);
                 continue;
             }
 
@@ -183,39 +260,132 @@ public final class Game {
             }
 
             if (action.kind() == ActionKinds.LIAR) {
+                snapshotDice();
                 rules.resolveLiar(ctx, turn, ui);
+                recordResolution(EventKinds.LIAR, turn, ctx);
                 currentIndex = ctx.nextStarterIndex();
                 break;
             }
 
             if (action.kind() == ActionKinds.EXACT) {
+                snapshotDice();
                 rules.resolveExact(ctx, turn, ui);
+                recordResolution(EventKinds.EXACT, turn, ctx);
                 currentIndex = ctx.nextStarterIndex();
                 break;
             }
 
             ui.println("Unknown action.");
         }
+        if (Metrics.ENABLED) {
+            turnTime(lastKind).recordSince(turnStart);
+            ROUND_TIME.recordSince(roundStart);
+        }
+        roundEvent.end();
+        if (roundEvent.shouldCommit()) {
+            roundEvent.matchId = matchId;
+            roundEvent.round = roundsPlayed;
+            roundEvent.alivePlayers = aliveAtStart;
+            roundEvent.diceInPlay = diceAtStart;
+            roundEvent.turns = turns;
+            roundEvent.resolution = lastKind == ActionKinds.EXACT ? "EXACT" : "LIAR";
+            roundEvent.commit();
+        }
+    }
+
+    // The wallet has already reserved the use; this only journals it, the database write happens later.
+    private void consumeBonus(long accountId, String bonus) {
+        BonusConsumedEvent event = new BonusConsumedEvent();
+        event.begin();
+        if (bonusRepo != null) bonusRepo.consumeLater(accountId, bonus);
+        event.end();
+        if (event.shouldCommit()) {
+            event.accountId = accountId;
+            event.bonus = bonus;
+            event.commit();
+        }
+    }
+
+    private static LatencyHistogram turnTime(int kind) {
+        switch (kind) {
+            case ActionKinds.BID: return TURN_BID;
+            case ActionKinds.LIAR: return TURN_LIAR;
+            case ActionKinds.EXACT: return TURN_EXACT;
+            case ActionKinds.BONUS_REROLL: return TURN_REROLL;
+            case ActionKinds.BONUS_PEEK: return TURN_PEEK;
+            default: return TURN_OTHER;
+        }
+    }
+
+    // Private information goes to the player's own seat when it has one.
+    private GameUI uiFor(Player p) {
+        if (p instanceof HumanPlayer && ((HumanPlayer) p).seat() != null) return ((HumanPlayer) p).seat();
+        return ui;
+    }
+
+    private void record(int kind, int seat, int flag, int a, int b) {
+        if (eventLog != null) eventLog.append(matchId, roundsPlayed, kind, seat, flag, a, b);
+    }
+
+    private void recordRoll(int seat) {
+        if (eventLog == null) return;
+        DiceCup cup = players.get(seat).cup();
+        int n = cup.size();
+        for (int chunk = 0; chunk * 10 < n || chunk == 0; chunk++) {
+            int packed = 0;
+            int end = Math.min(n, chunk * 10 + 10);
+            for (int i = chunk * 10; i < end; i++) packed |= cup.die(i) << (3 * (i - chunk * 10));
+            record(EventKinds.ROLL, seat, chunk, n, packed);
+        }
+    }
+
+    private void snapshotDice() {
+        if (eventLog == null) return;
+        for (int i = 0; i < players.size(); i++) diceBefore[i] = players.get(i).diceCount();
     }
 
-    private int alivePlayers() {
-        int c = 0;
-        for (Player p : players) if (p.isAlive()) c++;
-        return c;
+    private void recordResolution(int kind, int caller, RoundContext ctx) {
+        if (eventLog == null) return;
+        Bid bid = ctx.currentBid();
+        int actual = ctx.countMatchesTotal(bid);
+        boolean success = kind == EventKinds.LIAR ? actual >= bid.quantity() : actual == bid.quantity();
+        record(kind, caller, success ? 1 : 0, actual, ctx.lastBidderIndex());
+
+        for (int i = 0; i < players.size(); i++) {
+            int now = players.get(i).diceCount();
+            if (now < diceBefore[i]) record(EventKinds.DIE_LOST, i, 0, now, 0);
+            else if (now > diceBefore[i]) record(EventKinds.DIE_GAINED, i, 0, now, 0);
+        }
+    }
+
+    int alivePlayers() {
+        return roundContext.alivePlayers();
     }
 
     private int nextAliveIndex(int fromIndex) {
-        int n = players.size();
-        int i = fromIndex;
-        for (int k = 0; k < n; k++) {
-            i = (i + 1) % n;
-            if (players.get(i).isAlive()) return i;
+        return roundContext.nextAliveIndex(fromIndex);
+    }
+
+    public static Game create(List<Player> players, int maxDice, int startIndex, GameUI ui,
+                              PgAccountRepository accountRepo, PgBonusRepository bonusRepo) {
+        return new Game(players, ui, new RuleEngine(maxDice), bonusRepo, startIndex, accountRepo);
+    }
+
+    public static Game createHeadless(List<Player> players, int maxDice, int startIndex) {
+        return createHeadless(players, maxDice, startIndex, SilentUI.INSTANCE);
+    }
+
+    public static Game createHeadless(List<Player> players, int maxDice, int startIndex, GameUI ui) {
+        for (Player p : players) {
+            if (!(p instanceof BotPlayer)) {
+                throw new IllegalArgumentException("headless games support bots only: " + p.name());
+            }
         }
-        return fromIndex;
+        return new Game(players, ui, new RuleEngine(maxDice), null, startIndex, null);
     }
 
-    public static Game createFromConsole(ConsoleUI ui) {
-        Random rnd = new Random();
+    public static Game createFromConsole(GameUI ui) {
+        RngStreams rng = RngStreams.fromEntropy();
 
         PgAccountRepository accRepo = new PgAccountRepository();
         PgBonusRepository bonusRepo = new PgBonusRepository(accRepo);
@@ -241,59 +411,85 @@ public final class Game {
             Map<String, Integer> inv = bonusRepo.getInventory(fresh.getId());
             PlayerWallet wallet = new PlayerWallet(fresh.getId(), inv);
 
-            players.add(new HumanPlayer(fresh.getUsername(), new DiceCup(5, rnd), wallet));
+            players.add(new HumanPlayer(fresh.getUsername(), new DiceCup(5, rng.forCup(players.size())), wallet));
         }
 
-        BotStrategy strategy = new SimpleBotStrategy(rnd);
         for (int i = 1; i <= bots; i++) {
-            players.add(new BotPlayer("Bot" + i, new DiceCup(5, rnd), strategy));
+            int seat = players.size();
+            BotStrategy strategy = new SimpleBotStrategy(rng.forBot(seat));
+            players.add(new BotPlayer("Bot" + i, new DiceCup(5, rng.forCup(seat)), strategy));
         }
 
         RuleEngine rules = new RuleEngine(5);
-        int startIndex = rnd.nextInt(players.size());
+        int startIndex = rng.forTable().nextInt(players.size());
         return new Game(players, ui, rules, bonusRepo, startIndex, accRepo);
     }
 
-    private static Account pickAccount(ConsoleUI ui, PgAccountRepository repo, Set<String> usedUsernames) {
-        while (true) {
-            List<Account> all = repo.findAll();
+    private static final int ACCOUNT_PAGE_SIZE = 10;
 
-            List<Account> available = new ArrayList<>();
-            for (Account a : all) {
-                if (!usedUsernames.contains(a.getUsername())) {
-                    available.add(a);
-                }
-            }
+    // Pages through accounts in username order; only one page is ever loaded.
+    private static Account pickAccount(GameUI ui, PgAccountRepository repo, Set<String> usedUsernames) {
+        String prefix = "";
+        Deque<String> previousPages = new ArrayDeque<>();
+        String pageAfter = "";
+
+        while (true) {
+            // one extra row tells whether there is a next page
+            List<Account> page = repo.findPage(pageAfter, prefix, usedUsernames, ACCOUNT_PAGE_SIZE + 1);
+            boolean hasNext = page.size() > ACCOUNT_PAGE_SIZE;
+            if (hasNext) page = page.subList(0, ACCOUNT_PAGE_SIZE);
 
-            if (available.isEmpty()) {
+            if (page.isEmpty() && prefix.isEmpty() && previousPages.isEmpty()) {
                 ui.println("All existing accounts already selected. Create a new one.");
-                String name = ui.readNonEmpty("New username: ");
-                if (usedUsernames.contains(name)) {
-                    ui.println("This username is already selected in this match.");
-                    continue;
-                }
-                return repo.createIfNotExists(name);
+                Account created = createAccount(ui, repo, usedUsernames);
+                if (created != null) return created;
+                continue;
             }
 
-            ui.println("Accounts (available):");
-            for (int i = 0; i < available.size(); i++) {
-                Account a = available.get(i);
+            ui.println(prefix.isEmpty() ? "Accounts (available):" : "Accounts starting with '" + prefix + "':");
+            if (page.isEmpty()) ui.println("  (none)");
+            for (int i = 0; i < page.size(); i++) {
+                Account a = page.get(i);
                 ui.println("  " + (i + 1) + ") " + a.getUsername() + " (coins: " + a.getCoins() + ")");
             }
-            ui.println("  " + (available.size() + 1) + ") Create new account");
 
-            int choice = ui.readInt("Choose: ", 1, available.size() + 1);
-
-            if (choice == available.size() + 1) {
-                String name = ui.readNonEmpty("New username: ");
-                if (usedUsernames.contains(name)) {
-                    ui.println("This username is already selected in this match.");
-                    continue;
-                }
-                return repo.createIfNotExists(name);
+            int idx = page.size() + 1;
+            int nextNum = hasNext ? idx++ : -1;
+            int prevNum = previousPages.isEmpty() ? -1 : idx++;
+            int searchNum = idx++;
+            int createNum = idx;
+            if (nextNum > 0) ui.println("  " + nextNum + ") Next page");
+            if (prevNum > 0) ui.println("  " + prevNum + ") Previous page");
+            ui.println("  " + searchNum + ") Search by name");
+            ui.println("  " + createNum + ") Create new account");
+
+            int choice = ui.readInt("Choose: ", 1, createNum);
+
+            if (choice == nextNum) {
+                previousPages.push(pageAfter);
+                pageAfter = page.get(page.size() - 1).getUsername();
+            } else if (choice == prevNum) {
+                pageAfter = previousPages.pop();
+            } else if (choice == searchNum) {
+                ui.println("Name starts with (empty = all): ");
+                prefix = ui.readLine().trim();
+                previousPages.clear();
+                pageAfter = "";
+            } else if (choice == createNum) {
+                Account created = createAccount(ui, repo, usedUsernames);
+                if (created != null) return created;
+            } else {
+                return page.get(choice - 1);
             }
+        }
+    }
 
-            return available.get(choice - 1);
+    private static Account createAccount(GameUI ui, PgAccountRepository repo, Set<String> usedUsernames) {
+        String name = ui.readNonEmpty("New username: ");
+        if (usedUsernames.contains(name)) {
+            ui.println("This username is already selected in this match.");
+            return null;
         }
+        return repo.createIfNotExists(name);
     }
 }
@@ -0,0 +1,56 @@
+package perudo.core;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Deterministic tree of random streams derived from one master seed.
+ * Each match, cup and bot gets its own generator, so matches can run on any
+ * thread in any order and still be replayed bit-for-bit from (seed, matchIndex).
+ */
+public final class RngStreams {
+    private static final long MATCH = 0x4d41544348L;
+    private static final long CUP = 0x435550L;
+    private static final long BOT = 0x424f54L;
+    private static final long TABLE = 0x5441424c45L;
+
+    private final long seed;
+
+    public RngStreams(long seed) {
+        this.seed = seed;
+    }
+
+    public static RngStreams fromEntropy() {
+        return new RngStreams(ThreadLocalRandom.current().nextLong() ^ System.nanoTime());
+    }
+
+    public long seed() { return seed; }
+
+    public RngStreams forMatch(long matchIndex) {
+        return new RngStreams(derive(MATCH, matchIndex));
+    }
+
+    public RandomGenerator forCup(int seat) {
+        return new SplittableRandom(derive(CUP, seat));
+    }
+
+    public RandomGenerator forBot(int seat) {
+        return new SplittableRandom(derive(BOT, seat));
+    }
+
+    public RandomGenerator forTable() {
+        return new SplittableRandom(derive(TABLE, 0));
+    }
+
+    private long derive(long kind, long index) {
+        return mix64(mix64(seed ^ mix64(kind)) + index);
+    }
+
+    // SplitMix64 finalizer.
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
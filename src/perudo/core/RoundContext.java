@@ -1,23 +1,43 @@
 
 package perudo.core;
 
-import perudo.players.BotPlayer;
 import perudo.players.Player;
 
 import java.util.List;
 
+/**
+ * Per-round state of one table. Seat and dice totals follow dice changes only after {@link #bind()};
+ * before that they are a snapshot taken at construction.
+ */
 public final class RoundContext {
     private final List<Player> players;
+    private final SeatTracker seats;
     private Bid currentBid;
     private int lastBidderIndex = -1;
     private int nextStarterIndex = 0;
+    private final int[] faceTotals = new int[7];
+    private boolean totalsValid;
 
     public RoundContext(List<Player> players) {
         this.players = players;
+        this.seats = new SeatTracker(players);
     }
 
     public List<Player> players() { return players; }
 
+    // Routes the players' dice changes to this context; any context bound to them before goes stale.
+    public void bind() {
+        seats.bind();
+        totalsValid = false;
+    }
+
+    public void reset() {
+        currentBid = null;
+        lastBidderIndex = -1;
+        nextStarterIndex = 0;
+        totalsValid = false;
+    }
+
     public Bid currentBid() { return currentBid; }
     public int lastBidderIndex() { return lastBidderIndex; }
 
@@ -26,58 +46,44 @@ public final class RoundContext {
         this.lastBidderIndex = bidderIndex;
     }
 
-    public int totalDiceInPlay() {
-        int sum = 0;
-        for (Player p : players) sum += p.diceCount();
-        return sum;
-    }
-    public boolean hasAliveBots() {
-        for (int i = 0; i < players.size(); i++) {
-            if (players.get(i).isAlive() && (players.get(i) instanceof BotPlayer
+    public int totalDiceInPlay() { return seats.totalDice(); }
+    public int alivePlayers() { return seats.aliveCount(); }
+    public boolean hasAliveBots() { return seats.aliveBotMask() != 0; }
 
+    // Bit i set for each alive bot seat i.
+    public long aliveBotMask() { return seats.aliveBotMask(); }
 
+    public int nextAliveIndex(int fromIndex) { return seats.nextAlive(fromIndex); }
 
+    public int countMatchesTotal(Bid bid) {
+        return countMatchesTotal(bid.face());
+    }
 
-            )) return true;
-        }
-        return false;
+    public int countMatchesTotal(int face) {
+        if (!totalsValid) recountDice();
+        return face == 1 ? faceTotals[1] : faceTotals[face] + faceTotals[1];
     }
 
-    public java.util.List<Integer> aliveBotIndexes() {
-        java.util.List<Integer> res = new java.util.ArrayList<>();
-        for (int i = 0; i < players.size(); i++) {
-            if (players.get(i).isAlive() && (players.get(i) instanceof BotPlayer)) res.add(i);
-        }
-        return res;
+    public int countFaceTotal(int face) {
+        if (!totalsValid) recountDice();
+        return faceTotals[face];
     }
 
-    public int countMatchesTotal(Bid bid) {
-        int face = bid.face();
-        int count = 0;
+    public int countMatchesInCup(DiceCup cup, int face) {
+        return cup.countMatches(face);
+    }
 
-        for (Player p : players) {
-            if (!p.isAlive()) continue;
-            for (int d : p.cup().dice()) {
-                if (face == 1) {
-                    if (d == 1) count++;
-                } else {
-                    if (d == face || d == 1) count++;
-                }
-            }
-        }
-        return count;
+    // Call after any cup is re-rolled mid-round (e.g. REROLL bonus).
+    public void invalidateDiceTotals() {
+        totalsValid = false;
     }
 
-    public int countMatchesInCup(DiceCup cup, int face) {
-        int count = 0;
-        for (int d : cup.dice()) {
-            if (face == 1) {
-                if (d == 1) count++;
-            } else {
-                if (d == face || d == 1) count++;
-            }
+    private void recountDice() {
+        java.util.Arrays.fill(faceTotals, 0);
+        for (Player p : players) {
+            if (p.isAlive()) p.cup().addFaceCountsTo(faceTotals);
         }
-        return count;
+        totalsValid = true;
     }
 
     public void setNextStarterIndex(int idx) { this.nextStarterIndex = idx; }
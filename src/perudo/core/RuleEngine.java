@@ -1,63 +1,73 @@
 package perudo.core;
 
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
 import perudo.players.Player;
-import perudo.ui.ConsoleUI;
+import perudo.ui.GameUI;
 
 public final class RuleEngine {
+    private static final LatencyHistogram LIAR_TIME = Metrics.histogram("rules.resolveLiar");
+    private static final LatencyHistogram EXACT_TIME = Metrics.histogram("rules.resolveExact");
     private final int maxDice;
 
     public RuleEngine(int maxDice) {
         this.maxDice = maxDice;
     }
 
-    public void resolveLiar(RoundContext ctx, int callerIndex, ConsoleUI ui) {
+    public void resolveLiar(RoundContext ctx, int callerIndex, GameUI ui) {
+        long start = Metrics.start();
         Bid bid = ctx.currentBid();
         int actual = ctx.countMatchesTotal(bid);
+        boolean verbose = !ui.isSilent();
 
-        ui.println("\n>>> LIAR called!");
-        ui.println("Bid: " + bid + " | Actual matches: " + actual);
+        if (verbose) ui.println("\n>>> LIAR called!");
+        if (verbose) ui.println("Bid: " + bid + " | Actual matches: " + actual);
 
         int bidderIndex = ctx.lastBidderIndex();
         boolean bidTrue = actual >= bid.quantity();
 
         if (bidTrue) {
-            ui.println("Bid is TRUE. Caller loses 1 die.");
+            if (verbose) ui.println("Bid is TRUE. Caller loses 1 die.");
             ctx.players().get(callerIndex).loseDie();
             ctx.setNextStarterIndex(callerIndex);
         } else {
-            ui.println("Bid is FALSE. Bidder loses 1 die.");
+            if (verbose) ui.println("Bid is FALSE. Bidder loses 1 die.");
 
             ctx.players().get(bidderIndex).loseDie();
             ctx.setNextStarterIndex(bidderIndex);
         }
 
-        printCounts(ctx, ui);
+        if (verbose) printCounts(ctx, ui);
+        LIAR_TIME.recordSince(start);
     }
 
-    public void resolveExact(RoundContext ctx, int callerIndex, ConsoleUI ui) {
+    public void resolveExact(RoundContext ctx, int callerIndex, GameUI ui) {
+        long start = Metrics.start();
         Bid bid = ctx.currentBid();
         int actual = ctx.countMatchesTotal(bid);
+        boolean verbose = !ui.isSilent();
 
-        ui.println("\n>>> EXACT called!");
-        ui.println("Bid: " + bid + " | Actual matches: " + actual);
+        if (verbose) ui.println("\n>>> EXACT called!");
+        if (verbose) ui.println("Bid: " + bid + " | Actual matches: " + actual);
 
         int bidderIndex = ctx.lastBidderIndex();
 
         if (actual == bid.quantity()) {
-            ui.println("Exactly correct! Bidder gains 1 die (up to max).");
+            if (verbose) ui.println("Exactly correct! Bidder gains 1 die (up to max).");
             Player bidder = ctx.players().get(bidderIndex);
             bidder.gainDieUpToMax();
             ctx.setNextStarterIndex(callerIndex);
         } else {
-            ui.println("Not exact. Exact-caller loses 1 die.");
+            if (verbose) ui.println("Not exact. Exact-caller loses 1 die.");
             ctx.players().get(callerIndex).loseDie();
             ctx.setNextStarterIndex(callerIndex);
         }
 
-        printCounts(ctx, ui);
+        if (verbose) printCounts(ctx, ui);
+        EXACT_TIME.recordSince(start);
     }
 
-    private void printCounts(RoundContext ctx, ConsoleUI ui) {
+    private void printCounts(RoundContext ctx, GameUI ui) {
         ui.println("Dice counts:");
         for (Player p : ctx.players()) {
             ui.println(" - " + p.name() + ": " + p.diceCount());
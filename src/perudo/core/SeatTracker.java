@@ -0,0 +1,68 @@
+package perudo.core;
+
+import perudo.players.BotPlayer;
+import perudo.players.Player;
+
+import java.util.List;
+
+/**
+ * Alive/bot seat bitsets and the running dice total for one table, kept up to date by
+ * Player.loseDie / gainDieUpToMax so turn order and bot lookups never rescan the player list.
+ * A player reports to one tracker at a time: until {@link #bind} the tracker is only a snapshot.
+ */
+public final class SeatTracker {
+    public static final int MAX_SEATS = 64;
+
+    private final List<Player> players;
+    private long aliveMask;
+    private final long botMask;
+    private int totalDice;
+
+    public SeatTracker(List<Player> players) {
+        if (players.size() > MAX_SEATS) throw new IllegalArgumentException("at most " + MAX_SEATS + " players per table");
+        this.players = players;
+        long bots = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i) instanceof BotPlayer) bots |= 1L << i;
+        }
+        this.botMask = bots;
+        snapshot();
+    }
+
+    // Makes this the tracker every player reports to, taking them over from any earlier one.
+    public void bind() {
+        snapshot();
+        for (int i = 0; i < players.size(); i++) players.get(i).track(this, i);
+    }
+
+    private void snapshot() {
+        aliveMask = 0;
+        totalDice = 0;
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            if (p.isAlive()) aliveMask |= 1L << i;
+            totalDice += p.diceCount();
+        }
+    }
+
+    public void diceChanged(int seat, int before, int after) {
+        totalDice += after - before;
+        if (after > 0) aliveMask |= 1L << seat;
+        else aliveMask &= ~(1L << seat);
+    }
+
+    public int totalDice() { return totalDice; }
+    public long aliveMask() { return aliveMask; }
+    public long aliveBotMask() { return aliveMask & botMask; }
+    public int aliveCount() { return Long.bitCount(aliveMask); }
+
+    public boolean isAlive(int seat) { return (aliveMask & (1L << seat)) != 0; }
+
+    // First alive seat after fromIndex, wrapping around; fromIndex itself if it is the only one left.
+    public int nextAlive(int fromIndex) {
+        long higher = fromIndex >= MAX_SEATS - 1 ? 0 : aliveMask & (-1L << (fromIndex + 1));
+        if (higher != 0) return Long.numberOfTrailingZeros(higher);
+        if (aliveMask != 0) return Long.numberOfTrailingZeros(aliveMask);
+        return fromIndex;
+    }
+}
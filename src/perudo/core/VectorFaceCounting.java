@@ -0,0 +1,51 @@
+package perudo.core;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Compiled only with -Psimd; FaceCounting looks it up when jdk.incubator.vector is present.
+final class VectorFaceCounting {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    // Byte lane counters are flushed before they can overflow.
+    private static final int FLUSH_EVERY = 127;
+
+    private VectorFaceCounting() {}
+
+    static void count(byte[] faces, int from, int to, int[] totals) {
+        int lanes = SPECIES.length();
+        int upper = from + (to - from) / lanes * lanes;
+        ByteVector zero = ByteVector.zero(SPECIES);
+        ByteVector c1 = zero, c2 = zero, c3 = zero, c4 = zero, c5 = zero, c6 = zero;
+        byte[] lane = new byte[lanes];
+
+        int i = from;
+        while (i < upper) {
+            int end = Math.min(upper, i + FLUSH_EVERY * lanes);
+            for (; i < end; i += lanes) {
+                ByteVector v = ByteVector.fromArray(SPECIES, faces, i);
+                // a true lane converts to -1, so subtracting the mask adds one per matching die
+                c1 = c1.sub(v.eq((byte) 1).toVector().reinterpretAsBytes());
+                c2 = c2.sub(v.eq((byte) 2).toVector().reinterpretAsBytes());
+                c3 = c3.sub(v.eq((byte) 3).toVector().reinterpretAsBytes());
+                c4 = c4.sub(v.eq((byte) 4).toVector().reinterpretAsBytes());
+                c5 = c5.sub(v.eq((byte) 5).toVector().reinterpretAsBytes());
+                c6 = c6.sub(v.eq((byte) 6).toVector().reinterpretAsBytes());
+            }
+            totals[1] += flush(c1, lane);
+            totals[2] += flush(c2, lane);
+            totals[3] += flush(c3, lane);
+            totals[4] += flush(c4, lane);
+            totals[5] += flush(c5, lane);
+            totals[6] += flush(c6, lane);
+            c1 = c2 = c3 = c4 = c5 = c6 = zero;
+        }
+        FaceCounting.countScalar(faces, i, to, totals);
+    }
+
+    private static int flush(ByteVector counts, byte[] lane) {
+        counts.intoArray(lane, 0);
+        int sum = 0;
+        for (byte b : lane) sum += b;
+        return sum;
+    }
+}
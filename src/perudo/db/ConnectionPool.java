@@ -0,0 +1,313 @@
+package perudo.db;
+
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool. A semaphore caps open connections; idle ones are reused most recent
+ * first, re-validated after sitting idle, evicted after idleTimeout and retired after maxLifetime.
+ * Connections handed out are proxies whose close() returns them to the pool; each keeps a
+ * StatementCache so repeated SQL reuses its prepared statement.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private static final LatencyHistogram ACQUIRE_TIME = Metrics.histogram("db.pool.acquire");
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int maxSize;
+    private final int statementCacheSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long validateAfterMillis;
+    private final int validationTimeoutSeconds;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<Pooled> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder retired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong waitMaxNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, long maxLifetimeMillis) {
+        this(url, credentials(user, password), maxSize, acquireTimeoutMillis, idleTimeoutMillis, maxLifetimeMillis, 32);
+    }
+
+    // connectionProperties go to the driver as-is (user, password, pgjdbc's prepareThreshold, ...).
+    public ConnectionPool(String url, Properties connectionProperties, int maxSize, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, long maxLifetimeMillis, int statementCacheSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        if (statementCacheSize < 0) throw new IllegalArgumentException("statementCacheSize must be >= 0");
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.maxSize = maxSize;
+        this.statementCacheSize = statementCacheSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.validateAfterMillis = 5_000;
+        this.validationTimeoutSeconds = 2;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "perudo-db-pool");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, Math.min(idleTimeoutMillis, maxLifetimeMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::evict, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static Properties credentials(String user, String password) {
+        Properties p = new Properties();
+        if (user != null) p.setProperty("user", user);
+        if (password != null) p.setProperty("password", password);
+        return p;
+    }
+
+    // SQLState class 08 = connection exception
+    static boolean isConnectionError(Throwable t) {
+        return t instanceof SQLException && ((SQLException) t).getSQLState() != null
+                && ((SQLException) t).getSQLState().startsWith("08");
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("connection pool is closed");
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean got;
+        try {
+            got = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for a connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        waitMaxNanos.accumulateAndGet(waited, Math::max);
+        if (!got) {
+            timeouts.increment();
+            throw new SQLException("no database connection available within " + acquireTimeoutMillis + " ms (pool size " + maxSize + ")");
+        }
+
+        try {
+            Pooled p = takeIdle();
+            if (p == null) p = create();
+            p.lent();
+            acquired.increment();
+            ACQUIRE_TIME.recordSince(start);
+            return p.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Pooled takeIdle() {
+        Pooled p;
+        while ((p = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (now - p.createdAt >= maxLifetimeMillis || !valid(p, now)) {
+                retire(p);
+                continue;
+            }
+            return p;
+        }
+        return null;
+    }
+
+    private boolean valid(Pooled p, long now) {
+        if (now - p.lastUsed < validateAfterMillis) return true;
+        try {
+            return p.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Pooled create() throws SQLException {
+        Connection c = DriverManager.getConnection(url, connectionProperties);
+        open.incrementAndGet();
+        created.increment();
+        return new Pooled(c);
+    }
+
+    private void release(Pooled p) {
+        try {
+            if (p.statements != null) p.statements.reclaim();
+            boolean reusable = !closed && !p.broken
+                    && System.currentTimeMillis() - p.createdAt < maxLifetimeMillis
+                    && reset(p.physical);
+            if (reusable) {
+                p.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(p);
+            } else {
+                retire(p);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Leaves the connection as a fresh one would be: autocommit on, no open transaction.
+    private static boolean reset(Connection c) {
+        try {
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void retire(Pooled p) {
+        open.decrementAndGet();
+        retired.increment();
+        if (p.statements != null) p.statements.closeAll();
+        try {
+            p.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        List<Pooled> stale = new ArrayList<>();
+        for (Iterator<Pooled> it = idle.descendingIterator(); it.hasNext(); ) {
+            Pooled p = it.next();
+            if (now - p.lastUsed >= idleTimeoutMillis || now - p.createdAt >= maxLifetimeMillis) stale.add(p);
+        }
+        for (Pooled p : stale) {
+            if (idle.remove(p)) retire(p);
+        }
+    }
+
+    public int maxSize() { return maxSize; }
+    public int openConnections() { return open.get(); }
+    public int idleConnections() { return idle.size(); }
+    public int activeConnections() { return maxSize - permits.availablePermits(); }
+    public int waitingThreads() { return waiting.get(); }
+    public long acquired() { return acquired.sum(); }
+    public long created() { return created.sum(); }
+    public long retired() { return retired.sum(); }
+    public long timeouts() { return timeouts.sum(); }
+    public long statementHits() { return statementHits.sum(); }
+    public long statementMisses() { return statementMisses.sum(); }
+    public long statementEvictions() { return statementEvictions.sum(); }
+
+    public double avgWaitMillis() {
+        long n = acquired.sum() + timeouts.sum();
+        return n == 0 ? 0 : waitNanos.sum() / 1e6 / n;
+    }
+
+    public double maxWaitMillis() {
+        return waitMaxNanos.get() / 1e6;
+    }
+
+    public String report() {
+        return String.format("db pool active=%d idle=%d open=%d/%d waiting=%d | acquired=%d created=%d retired=%d timeouts=%d | "
+                        + "avgWait=%.2fms maxWait=%.2fms | statements hits=%d misses=%d evictions=%d",
+                activeConnections(), idleConnections(), openConnections(), maxSize, waitingThreads(),
+                acquired(), created(), retired(), timeouts(), avgWaitMillis(), maxWaitMillis(),
+                statementHits(), statementMisses(), statementEvictions());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        Pooled p;
+        while ((p = idle.pollFirst()) != null) retire(p);
+    }
+
+    private final class Pooled implements InvocationHandler {
+        final Connection physical;
+        final long createdAt = System.currentTimeMillis();
+        final Connection proxy;
+        final StatementCache statements;
+        volatile long lastUsed = createdAt;
+        volatile boolean broken;
+        private boolean returned = true;
+
+        Pooled(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+            this.statements = statementCacheSize == 0 ? null : new StatementCache(statementCacheSize, proxy,
+                    () -> broken = true, statementHits, statementMisses, statementEvictions);
+        }
+
+        synchronized void lent() {
+            returned = false;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                synchronized (this) {
+                    if (returned) return null;
+                    returned = true;
+                }
+                release(this);
+                return null;
+            }
+            if (name.equals("isClosed")) {
+                synchronized (this) {
+                    if (returned) return true;
+                }
+                return physical.isClosed();
+            }
+            if (name.equals("equals")) return proxy == args[0];
+            if (name.equals("hashCode")) return System.identityHashCode(proxy);
+            if (name.equals("toString")) return "pooled:" + physical;
+            synchronized (this) {
+                if (returned) throw new SQLException("connection already returned to the pool");
+            }
+            try {
+                if (statements != null && name.equals("prepareStatement") && args.length == 1) {
+                    return statements.prepare(physical, (String) args[0]);
+                }
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                // never hand a connection with a connection-level error out again
+                if (isConnectionError(cause)) broken = true;
+                throw cause;
+            } catch (SQLException e) {
+                if (isConnectionError(e)) broken = true;
+                throw e;
+            }
+        }
+    }
+}
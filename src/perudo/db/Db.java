@@ -1,18 +1,40 @@
 package perudo.db;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
 public final class Db {
     private static final Db INSTANCE = new Db();
+    // -Dperudo.db.pool.* overrides; created on first use so nothing connects until a repository runs
+    private static volatile ConnectionPool pool;
     private Db() {}
     public static Db getInstance() {
         return INSTANCE;
     }
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-                DbConfig.DB_URL,
-                DbConfig.DB_USER,
-                DbConfig.DB_PASSWORD
-        );
+        return pool().getConnection();
     }
-}
\ No newline at end of file
+    public static ConnectionPool pool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (Db.class) {
+                p = pool;
+                if (p == null) {
+                    Properties props = new Properties();
+                    props.setProperty("user", DbConfig.DB_USER);
+                    props.setProperty("password", DbConfig.DB_PASSWORD);
+                    // pgjdbc switches a statement to a named server-side plan after this many executions;
+                    // with cached statements the hot queries get there quickly
+                    props.setProperty("prepareThreshold", System.getProperty("perudo.db.prepareThreshold", "2"));
+                    p = new ConnectionPool(DbConfig.DB_URL, props,
+                            Integer.getInteger("perudo.db.pool.maxSize", 10),
+                            Long.getLong("perudo.db.pool.acquireTimeoutMillis", 5_000),
+                            Long.getLong("perudo.db.pool.idleTimeoutMillis", 300_000),
+                            Long.getLong("perudo.db.pool.maxLifetimeMillis", 1_800_000),
+                            Integer.getInteger("perudo.db.pool.statementCacheSize", 32));
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,115 @@
+package perudo.db;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for query results: LRU order, per-entry TTL, explicit invalidation.
+ * A load that races with an invalidation is returned to its caller but not cached,
+ * so a write can never be followed by a stale cached read. Null results are not cached.
+ */
+public final class QueryCache<K, V> {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QueryCache(String name, int maxSize, long ttlMillis) {
+        if (maxSize < 0) throw new IllegalArgumentException("maxSize must be >= 0");
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    // -Dperudo.cache.<name>.size / .ttlMillis override the defaults; size 0 disables the cache.
+    public static <K, V> QueryCache<K, V> configured(String name, int defaultSize, long defaultTtlMillis) {
+        return new QueryCache<>(name,
+                Integer.getInteger("perudo.cache." + name + ".size", defaultSize),
+                Long.getLong("perudo.cache." + name + ".ttlMillis", defaultTtlMillis));
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long stamp;
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            if (e != null) {
+                if (System.nanoTime() - e.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return e.value;
+                }
+                map.remove(key);
+                evictions.increment();
+            }
+            stamp = generation;
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null && maxSize > 0) {
+            synchronized (this) {
+                if (generation == stamp) {
+                    map.put(key, new Entry<>(value, System.nanoTime()));
+                    if (map.size() > maxSize) {
+                        Iterator<Entry<V>> it = map.values().iterator();
+                        it.next();
+                        it.remove();
+                        evictions.increment();
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        invalidations.increment();
+        map.remove(key);
+    }
+
+    public synchronized void invalidateIf(BiPredicate<? super K, ? super V> matches) {
+        generation++;
+        invalidations.increment();
+        for (Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            if (matches.test(e.getKey(), e.getValue().value)) it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations.increment();
+        map.clear();
+    }
+
+    public synchronized int size() { return map.size(); }
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    public long evictions() { return evictions.sum(); }
+    public long invalidations() { return invalidations.sum(); }
+
+    public String report() {
+        long h = hits(), m = misses();
+        return String.format("cache %s size=%d/%d hits=%d misses=%d (%.1f%% hit) evictions=%d invalidations=%d",
+                name, size(), maxSize, h, m, h + m == 0 ? 0 : h * 100.0 / (h + m), evictions(), invalidations());
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package perudo.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for one pooled connection, keyed by SQL text.
+ * Callers get a proxy whose close() only resets the statement and hands it back,
+ * so the driver keeps the statement (and, past its prepareThreshold, the server-side plan).
+ * If the same SQL is already open on this connection, an uncached statement is returned instead.
+ */
+final class StatementCache {
+    private final int capacity;
+    private final Connection owner;
+    private final Runnable onBroken;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int capacity, Connection owner, Runnable onBroken, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.capacity = capacity;
+        this.owner = owner;
+        this.onBroken = onBroken;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    synchronized PreparedStatement prepare(Connection physical, String sql) throws SQLException {
+        Entry e = entries.get(sql);
+        if (e != null && !e.inUse) {
+            hits.increment();
+            e.inUse = true;
+            return e.proxy;
+        }
+        misses.increment();
+        PreparedStatement ps = physical.prepareStatement(sql);
+        if (e != null) return ps;
+
+        e = new Entry(ps);
+        e.inUse = true;
+        entries.put(sql, e);
+        if (entries.size() > capacity) evictOne(e);
+        return e.proxy;
+    }
+
+    // Least recently used statement that nobody holds; one still in use is closed when it comes back.
+    private void evictOne(Entry keep) {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry old = it.next();
+            if (old == keep) continue;
+            it.remove();
+            evictions.increment();
+            if (old.inUse) old.evicted = true;
+            else closeQuietly(old.statement);
+            return;
+        }
+    }
+
+    // Connection going back to the pool: anything left open by the borrower is reclaimed.
+    synchronized void reclaim() {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry e = it.next();
+            if (e.inUse) {
+                e.inUse = false;
+                try {
+                    reset(e.statement);
+                } catch (SQLException ex) {
+                    it.remove();
+                    closeQuietly(e.statement);
+                }
+            }
+        }
+    }
+
+    synchronized void closeAll() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        entries.clear();
+        for (Entry e : all) closeQuietly(e.statement);
+    }
+
+    private synchronized void giveBack(Entry e) throws SQLException {
+        if (!e.inUse) return;
+        e.inUse = false;
+        if (e.evicted) {
+            e.statement.close();
+            return;
+        }
+        try {
+            reset(e.statement);
+        } catch (SQLException ex) {
+            entries.values().remove(e);
+            closeQuietly(e.statement);
+            throw ex;
+        }
+    }
+
+    // Back to the state prepareStatement() hands out, so the next borrower of this SQL inherits
+    // no parameters, pending batch, fetch size, row limit or timeout.
+    private static void reset(PreparedStatement ps) throws SQLException {
+        ps.clearParameters();
+        ps.clearBatch();
+        ps.setFetchSize(0);
+        ps.setMaxRows(0);
+        ps.setQueryTimeout(0);
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private final class Entry implements InvocationHandler {
+        final PreparedStatement statement;
+        final PreparedStatement proxy;
+        boolean inUse;
+        boolean evicted;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack(this);
+                    return null;
+                case "isClosed":
+                    synchronized (StatementCache.this) {
+                        return !inUse;
+                    }
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "cached:" + statement;
+                default:
+                    break;
+            }
+            synchronized (StatementCache.this) {
+                if (!inUse) throw new SQLException("statement already closed");
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException ex) {
+                Throwable cause = ex.getCause();
+                if (ConnectionPool.isConnectionError(cause)) onBroken.run();
+                throw cause;
+            }
+        }
+    }
+}
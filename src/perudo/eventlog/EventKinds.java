@@ -0,0 +1,43 @@
+package perudo.eventlog;
+
+public final class EventKinds {
+    private EventKinds() {}
+
+    // a = players, b = start seat
+    public static final int MATCH_START = 1;
+    // seat = winner (-1 none), a = rounds played
+    public static final int MATCH_END = 2;
+    // a = dice count, b = faces packed 3 bits each (die 0 in the low bits); flag = chunk index for > 10 dice
+    public static final int ROLL = 3;
+    // a = quantity, b = face
+    public static final int BID = 4;
+    // seat = caller, a = actual matches, b = bidder seat, flag = 1 if the bid was true
+    public static final int LIAR = 5;
+    // seat = caller, a = actual matches, b = bidder seat, flag = 1 if the bid was exact
+    public static final int EXACT = 6;
+    // seat = user, a = peek target (-1 for reroll)
+    public static final int BONUS_REROLL = 7;
+    public static final int BONUS_PEEK = 8;
+    // a = dice count after the change
+    public static final int DIE_LOST = 9;
+    public static final int DIE_GAINED = 10;
+    // simulated matches only; flag 0: a, b = high, low half of the simulation seed; flag 1: same for the match index
+    public static final int SIM_ORIGIN = 11;
+
+    public static String name(int kind) {
+        switch (kind) {
+            case MATCH_START: return "MATCH_START";
+            case MATCH_END: return "MATCH_END";
+            case ROLL: return "ROLL";
+            case BID: return "BID";
+            case LIAR: return "LIAR";
+            case EXACT: return "EXACT";
+            case BONUS_REROLL: return "BONUS_REROLL";
+            case BONUS_PEEK: return "BONUS_PEEK";
+            case DIE_LOST: return "DIE_LOST";
+            case DIE_GAINED: return "DIE_GAINED";
+            case SIM_ORIGIN: return "SIM_ORIGIN";
+            default: return "UNKNOWN(" + kind + ")";
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package perudo.eventlog;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+public final class EventLogDump {
+    private EventLogDump() {}
+
+    // args: <dir>              -> summary of all segments
+    //       <dir> <matchId>    -> every event of one match
+    public static void main(String[] args) {
+        if (args.length < 1) throw new IllegalArgumentException("usage: <dir> [matchId]");
+        EventLogReader reader = new EventLogReader(Path.of(args[0]));
+
+        if (args.length > 1) {
+            long matchId = Long.parseLong(args[1]);
+            long n = reader.replay(matchId, e -> {
+                System.out.println(e);
+                return true;
+            });
+            System.out.println(n + " events");
+            return;
+        }
+
+        long start = System.nanoTime();
+        long[] counts = new long[16];
+        Set<Long> matches = new HashSet<>();
+        long total = reader.scan(e -> {
+            int k = e.kind();
+            if (k >= 0 && k < counts.length) counts[k]++;
+            if (k == EventKinds.MATCH_END) matches.add(e.matchId());
+            return true;
+        });
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Segments: %d, events: %d, finished matches: %d (%.0f events/s)%n",
+                reader.segments().size(), total, matches.size(), secs == 0 ? 0 : total / secs);
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] > 0) System.out.println("  " + EventKinds.name(k) + ": " + counts[k]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package perudo.eventlog;
+
+import java.nio.file.Path;
+
+/*
+ * Segment file layout (little-endian):
+ *   header (32 bytes): magic "PRDLOG01", int version, int record size, 16 reserved bytes
+ *   records (32 bytes each):
+ *     0  long  matchId
+ *     8  long  epoch millis
+ *    16  int   round
+ *    20  short kind (EventKinds)
+ *    22  byte  seat (-1 when not applicable)
+ *    23  byte  flag
+ *    24  int   a
+ *    28  int   b
+ */
+final class EventLogFormat {
+    private EventLogFormat() {}
+
+    static final long MAGIC = 0x3130474f4c445250L; // "PRDLOG01" read as little-endian long
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 32;
+
+    static final int OFF_MATCH = 0;
+    static final int OFF_TIME = 8;
+    static final int OFF_ROUND = 16;
+    static final int OFF_KIND = 20;
+    static final int OFF_SEAT = 22;
+    static final int OFF_FLAG = 23;
+    static final int OFF_A = 24;
+    static final int OFF_B = 28;
+
+    static final String PREFIX = "events-";
+    static final String SUFFIX = ".bin";
+
+    static Path segmentPath(Path dir, long segment) {
+        return dir.resolve(String.format("%s%08d%s", PREFIX, segment, SUFFIX));
+    }
+
+    static boolean isSegment(Path p) {
+        String n = p.getFileName().toString();
+        return n.startsWith(PREFIX) && n.endsWith(SUFFIX);
+    }
+
+    static long segmentNumber(Path p) {
+        String n = p.getFileName().toString();
+        return Long.parseLong(n.substring(PREFIX.length(), n.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,83 @@
+package perudo.eventlog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static perudo.eventlog.EventLogFormat.*;
+
+/**
+ * Scans event log segments through read-only memory maps; records are never copied onto the heap.
+ */
+public final class EventLogReader {
+    private final Path dir;
+
+    public EventLogReader(Path dir) {
+        this.dir = dir;
+    }
+
+    public List<Path> segments() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(EventLogFormat::isSegment)
+                    .sorted(Comparator.comparingLong(EventLogFormat::segmentNumber))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("event log list failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Returns the number of records visited.
+    public long scan(EventVisitor visitor) {
+        EventRecord rec = new EventRecord();
+        long visited = 0;
+        for (Path seg : segments()) {
+            long n = scanSegment(seg, rec, visitor);
+            if (n < 0) return visited - n - 1;
+            visited += n;
+        }
+        return visited;
+    }
+
+    public long replay(long matchId, EventVisitor visitor) {
+        long[] seen = new long[1];
+        scan(e -> {
+            if (e.matchId() != matchId) return true;
+            seen[0]++;
+            return visitor.onEvent(e);
+        });
+        return seen[0];
+    }
+
+    // Returns records visited, or -(visited + 1) when the visitor stopped early.
+    private static long scanSegment(Path seg, EventRecord rec, EventVisitor visitor) {
+        try (FileChannel ch = FileChannel.open(seg, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE) return 0;
+            if (size > Integer.MAX_VALUE) throw new IllegalStateException("segment too large: " + seg);
+
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getLong(0) != MAGIC) throw new IllegalStateException("not an event log segment: " + seg);
+            if (map.getInt(12) != RECORD_SIZE) throw new IllegalStateException("unsupported record size in " + seg);
+
+            // A trailing partial record (crash mid-write) is ignored.
+            int records = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+            for (int i = 0; i < records; i++) {
+                rec.moveTo(map, HEADER_SIZE + i * RECORD_SIZE);
+                if (!visitor.onEvent(rec)) return -(i + 1) - 1;
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("event log read failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package perudo.eventlog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static perudo.eventlog.EventLogFormat.*;
+
+public final class EventLogWriter implements AutoCloseable {
+    public static final long DEFAULT_RECORDS_PER_SEGMENT = 1L << 20; // 32 MiB per segment
+    private static final int BUFFER_RECORDS = 2048;
+
+    private final Path dir;
+    private final long recordsPerSegment;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private FileChannel channel;
+    private long segment;
+    private long recordsInSegment;
+    private boolean closed;
+
+    public EventLogWriter(Path dir) {
+        this(dir, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    public EventLogWriter(Path dir, long recordsPerSegment) {
+        if (recordsPerSegment < 1) throw new IllegalArgumentException("recordsPerSegment must be >= 1");
+        this.dir = dir;
+        this.recordsPerSegment = recordsPerSegment;
+        try {
+            Files.createDirectories(dir);
+            this.segment = lastSegment(dir) + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("event log open failed: " + e.getMessage(), e);
+        }
+    }
+
+    public Path directory() { return dir; }
+
+    public long nextMatchId() {
+        return MatchIds.next();
+    }
+
+    public synchronized void append(long matchId, int round, int kind, int seat, int flag, int a, int b) {
+        if (closed) throw new IllegalStateException("event log closed");
+        if (!buf.hasRemaining()) drain();
+        if (channel == null || recordsInSegment == recordsPerSegment) rollSegment();
+
+        buf.putLong(matchId);
+        buf.putLong(System.currentTimeMillis());
+        buf.putInt(round);
+        buf.putShort((short) kind);
+        buf.put((byte) seat);
+        buf.put((byte) flag);
+        buf.putInt(a);
+        buf.putInt(b);
+        recordsInSegment++;
+    }
+
+    public synchronized void flush() {
+        if (closed) return;
+        drain();
+        try {
+            if (channel != null) channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("event log flush failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        flush();
+        closed = true;
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("event log close failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void drain() {
+        if (channel == null || buf.position() == 0) return;
+        buf.flip();
+        try {
+            while (buf.hasRemaining()) channel.write(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException("event log write failed: " + e.getMessage(), e);
+        } finally {
+            buf.clear();
+        }
+    }
+
+    private void rollSegment() {
+        drain();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                segment++;
+            }
+            channel = FileChannel.open(segmentPath(dir, segment),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(RECORD_SIZE);
+            header.position(HEADER_SIZE).flip();
+            while (header.hasRemaining()) channel.write(header);
+            recordsInSegment = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("event log segment roll failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static long lastSegment(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(EventLogFormat::isSegment)
+                    .mapToLong(EventLogFormat::segmentNumber)
+                    .max().orElse(0);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package perudo.eventlog;
+
+import java.nio.ByteBuffer;
+
+import static perudo.eventlog.EventLogFormat.*;
+
+// Flyweight view over one record of a mapped segment; only valid inside EventVisitor.onEvent.
+public final class EventRecord {
+    private ByteBuffer buf;
+    private int offset;
+
+    EventRecord() {}
+
+    void moveTo(ByteBuffer buf, int offset) {
+        this.buf = buf;
+        this.offset = offset;
+    }
+
+    public long matchId() { return buf.getLong(offset + OFF_MATCH); }
+    public long timeMillis() { return buf.getLong(offset + OFF_TIME); }
+    public int round() { return buf.getInt(offset + OFF_ROUND); }
+    public int kind() { return buf.getShort(offset + OFF_KIND); }
+    public int seat() { return buf.get(offset + OFF_SEAT); }
+    public int flag() { return buf.get(offset + OFF_FLAG); }
+    public int a() { return buf.getInt(offset + OFF_A); }
+    public int b() { return buf.getInt(offset + OFF_B); }
+
+    // For ROLL records.
+    public int die(int i) {
+        return (b() >>> (3 * i)) & 7;
+    }
+
+    @Override
+    public String toString() {
+        return "match=" + matchId() + " round=" + round() + " " + EventKinds.name(kind())
+                + " seat=" + seat() + " flag=" + flag() + " a=" + a() + " b=" + b();
+    }
+}
@@ -0,0 +1,6 @@
+package perudo.eventlog;
+
+public interface EventVisitor {
+    // Return false to stop the scan.
+    boolean onEvent(EventRecord e);
+}
@@ -0,0 +1,18 @@
+package perudo.eventlog;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide match ids: start time in milliseconds in the high bits, a counter in the low 20.
+ * Every Game gets one whether or not it is logged, so event log records and reward settlement keys
+ * of one match agree, and two matches of one process never share an id.
+ */
+public final class MatchIds {
+    private static final AtomicLong NEXT = new AtomicLong(System.currentTimeMillis() << 20);
+
+    private MatchIds() {}
+
+    public static long next() {
+        return NEXT.incrementAndGet();
+    }
+}
@@ -0,0 +1,16 @@
+package perudo.jfr;
+
+import jdk.jfr.*;
+
+@Name("perudo.BonusConsumed")
+@Label("Bonus Consumed")
+@Category({"Perudo", "Game"})
+@Description("A bonus use reserved from the wallet and appended to the bonus journal")
+@StackTrace(false)
+public final class BonusConsumedEvent extends Event {
+    @Label("Account Id")
+    public long accountId;
+
+    @Label("Bonus")
+    public String bonus;
+}
@@ -0,0 +1,18 @@
+package perudo.jfr;
+
+import jdk.jfr.*;
+
+@Name("perudo.BotDecision")
+@Label("Bot Decision")
+@Category({"Perudo", "Game"})
+@StackTrace(false)
+public final class BotDecisionEvent extends Event {
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Action")
+    public String action;
+}
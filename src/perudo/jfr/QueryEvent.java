@@ -0,0 +1,31 @@
+package perudo.jfr;
+
+import jdk.jfr.*;
+
+@Name("perudo.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Perudo", "Database"})
+public final class QueryEvent extends Event {
+    @Label("SQL Id")
+    @Description("Repository and method, e.g. account.findByUsername")
+    public String sqlId;
+
+    @Label("Rows")
+    @Description("Rows read or updated")
+    public int rows;
+
+    public static QueryEvent begin(String sqlId) {
+        QueryEvent e = new QueryEvent();
+        e.sqlId = sqlId;
+        e.begin();
+        return e;
+    }
+
+    public void finish(int rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package perudo.jfr;
+
+import jdk.jfr.*;
+
+@Name("perudo.Round")
+@Label("Round")
+@Category({"Perudo", "Game"})
+@Description("One round of a match, from the roll to the LIAR/EXACT resolution")
+@StackTrace(false)
+public final class RoundEvent extends Event {
+    @Label("Match Id")
+    public long matchId;
+
+    @Label("Round")
+    public int round;
+
+    @Label("Alive Players")
+    public int alivePlayers;
+
+    @Label("Dice In Play")
+    public int diceInPlay;
+
+    @Label("Turns")
+    public int turns;
+
+    @Label("Resolution")
+    public String resolution;
+}
@@ -0,0 +1,91 @@
+package perudo.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide latency histograms, enabled with -Dperudo.metrics=true.
+ * When disabled, start() returns 0 and recordSince() returns immediately; both fold away after JIT.
+ * On exit an enabled process prints the text report to stderr, or writes JSON to -Dperudo.metrics.json=<file>.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("perudo.metrics");
+
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(Metrics::dumpOnExit, "perudo-metrics"));
+        }
+    }
+
+    private Metrics() {}
+
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public static List<LatencyHistogram.Snapshot> snapshots() {
+        List<LatencyHistogram.Snapshot> res = new ArrayList<>();
+        for (LatencyHistogram h : HISTOGRAMS.values()) {
+            LatencyHistogram.Snapshot s = h.snapshot();
+            if (s.count() > 0) res.add(s);
+        }
+        res.sort((a, b) -> a.name().compareTo(b.name()));
+        return res;
+    }
+
+    public static void reset() {
+        for (LatencyHistogram h : HISTOGRAMS.values()) h.reset();
+    }
+
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-32s %10s %10s %10s %10s %10s %10s%n",
+                "name", "count", "mean(us)", "p50(us)", "p99(us)", "p999(us)", "max(us)"));
+        for (LatencyHistogram.Snapshot s : snapshots()) {
+            sb.append(String.format(Locale.ROOT, "%-32s %10d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    s.name(), s.count(), s.meanNanos() / 1e3,
+                    s.percentileNanos(0.50) / 1e3, s.percentileNanos(0.99) / 1e3,
+                    s.percentileNanos(0.999) / 1e3, s.maxNanos() / 1e3));
+        }
+        return sb.toString();
+    }
+
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder("{\"unit\":\"ns\",\"histograms\":[");
+        boolean first = true;
+        for (LatencyHistogram.Snapshot s : snapshots()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"count\":%d,\"mean\":%.1f,\"p50\":%d,\"p99\":%d,\"p999\":%d,\"max\":%d}",
+                    s.name(), s.count(), s.meanNanos(), s.percentileNanos(0.50), s.percentileNanos(0.99),
+                    s.percentileNanos(0.999), s.maxNanos()));
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void dumpOnExit() {
+        String json = System.getProperty("perudo.metrics.json");
+        if (json == null) {
+            System.err.print(report());
+            return;
+        }
+        try {
+            Files.writeString(Path.of(json), toJson());
+        } catch (IOException e) {
+            System.err.println("Could not write metrics to " + json + ": " + e.getMessage());
+        }
+    }
+}
@@ -2,19 +2,44 @@ package perudo.players;
 
 import perudo.ai.BotStrategy;
 import perudo.core.*;
-import perudo.ui.ConsoleUI;
+import perudo.jfr.BotDecisionEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
+import perudo.ui.GameUI;
 
 public final class BotPlayer extends Player {
     private final BotStrategy strategy;
+    private final LatencyHistogram chooseTime;
 
     public BotPlayer(String name, DiceCup cup, BotStrategy strategy) {
         super(name, cup);
         this.strategy = strategy;
+        this.chooseTime = Metrics.ENABLED ? Metrics.histogram("bot.choose." + strategy.name()) : null;
     }
 
+    public BotStrategy strategy() { return strategy; }
+
     @Override
-    public Action chooseAction(perudo.core.RoundContext ctx, ConsoleUI ui) {
-        return strategy.choose(this, ctx);
+    public Action chooseAction(perudo.core.RoundContext ctx, GameUI ui) {
+        BotDecisionEvent event = new BotDecisionEvent();
+        event.begin();
+        long start = Metrics.start();
+        Action a = strategy.choose(this, ctx);
+        if (chooseTime != null) chooseTime.recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = strategy.name();
+            event.player = name();
+            event.action = describe(a);
+            event.commit();
+        }
+        return a;
     }
-}
 
+    private static String describe(Action a) {
+        if (a.kind() == ActionKinds.BID) return "BID " + a.bid();
+        if (a.kind() == ActionKinds.LIAR) return "LIAR";
+        if (a.kind() == ActionKinds.EXACT) return "EXACT";
+        return "KIND " + a.kind();
+    }
+}
@@ -2,23 +2,52 @@
 package perudo.players;
 
 import perudo.accounts.PlayerWallet;
+import perudo.ai.BotStrategy;
 import perudo.core.*;
-import perudo.ui.ConsoleUI;
+import perudo.ui.GameUI;
+import perudo.ui.SeatClosedException;
 
-import java.util.List;
 
 public final class HumanPlayer extends Player {
     private final PlayerWallet wallet;
+    private final GameUI seat;
+    private final BotStrategy standIn;
+    private boolean replaced;
 
     public HumanPlayer(String name, DiceCup cup, PlayerWallet wallet) {
+        this(name, cup, wallet, null, null);
+    }
+
+    // seat: this player's private I/O; null means the player shares the table UI (local console).
+    // standIn: plays the rest of the match if the seat closes; null lets the closed seat end the game.
+    public HumanPlayer(String name, DiceCup cup, PlayerWallet wallet, GameUI seat, BotStrategy standIn) {
         super(name, cup);
         this.wallet = wallet;
+        this.seat = seat;
+        this.standIn = standIn;
     }
 
     public PlayerWallet wallet() { return wallet; }
 
+    public GameUI seat() { return seat; }
+
+    // True once the player disconnected and the stand-in bot took over their dice.
+    public boolean replaced() { return replaced; }
+
     @Override
-    public Action chooseAction(perudo.core.RoundContext ctx, ConsoleUI ui) {
+    public Action chooseAction(perudo.core.RoundContext ctx, GameUI tableUi) {
+        if (replaced) return standIn.choose(this, ctx);
+        try {
+            return ask(ctx, seat != null ? seat : tableUi);
+        } catch (SeatClosedException e) {
+            if (standIn == null || Thread.currentThread().isInterrupted()) throw e;
+            replaced = true;
+            tableUi.println(name() + " disconnected; a bot plays their dice.");
+            return standIn.choose(this, ctx);
+        }
+    }
+
+    private Action ask(perudo.core.RoundContext ctx, GameUI ui) {
         while (true) {
             StringBuilder sb = new StringBuilder("Choose: [B]id");
             if (ctx.currentBid() != null) sb.append(", [L]iar, [E]xact");
@@ -36,21 +65,22 @@ public final class HumanPlayer extends Player {
             if (c == 'R' && wallet.canUseReroll()) return Action.bonusReroll();
 
             if (c == 'P' && wallet.canUsePeek() && ctx.hasAliveBots()) {
-                List<Integer> botIndexes = ctx.aliveBotIndexes();
+                long bots = ctx.aliveBotMask();
                 ui.println("Choose bot to peek:");
-                for (int i = 0; i < botIndexes.size(); i++) {
-                    int idx = botIndexes.get(i);
-                    ui.println("  " + (i + 1) + ") " + ctx.players().get(idx).name());
+                int n = 0;
+                for (long m = bots; m != 0; m &= m - 1) {
+                    ui.println("  " + (++n) + ") " + ctx.players().get(Long.numberOfTrailingZeros(m)).name());
                 }
-                int choice = ui.readInt("Bot number: ", 1, botIndexes.size());
-                int targetIndex = botIndexes.get(choice - 1);
-                return Action.bonusPeek(targetIndex);
+                int choice = ui.readInt("Bot number: ", 1, n);
+                long m = bots;
+                for (int i = 1; i < choice; i++) m &= m - 1;
+                return Action.bonusPeek(Long.numberOfTrailingZeros(m));
             }
 
             if (c == 'B') {
                 int q = ui.readInt("Quantity: ", 1, 200);
                 int f = ui.readInt("Face (1..6): ", 1, 6);
-                return Action.bid(new Bid(q, f));
+                return Action.bid(q, f);
             }
 
             if (ctx.currentBid() != null && c == 'L') return Action.liar();
@@ -2,7 +2,7 @@ package perudo.players;
 
 import perudo.core.Action;
 import perudo.core.DiceCup;
-import perudo.ui.ConsoleUI;
+import perudo.ui.GameUI;
 
 public abstract class Player {
     private final String name;
@@ -12,13 +12,16 @@ public abstract class Player {
     private boolean rerollUsed = false;
     private boolean peekUsed = false;
 
+    private perudo.core.SeatTracker tracker;
+    private int seat;
+
     protected Player(String name, DiceCup cup) {
         this.name = name;
         this.cup = cup;
         this.diceCount = cup.maxDice();
     }
 
-    public abstract Action chooseAction(perudo.core.RoundContext ctx, ConsoleUI ui);
+    public abstract Action chooseAction(perudo.core.RoundContext ctx, GameUI ui);
 
     public void roll() {
         cup.roll(diceCount);
@@ -26,9 +29,21 @@ public abstract class Player {
 
     public boolean isAlive() { return diceCount > 0; }
 
-    public void loseDie() { diceCount = Math.max(0, diceCount - 1); }
+    public void loseDie() { setDiceCount(Math.max(0, diceCount - 1)); }
+
+    public void gainDieUpToMax() { setDiceCount(Math.min(cup.maxDice(), diceCount + 1)); }
 
-    public void gainDieUpToMax() { diceCount = Math.min(cup.maxDice(), diceCount + 1); }
+    private void setDiceCount(int count) {
+        int before = diceCount;
+        diceCount = count;
+        if (tracker != null && before != count) tracker.diceChanged(seat, before, count);
+    }
+
+    // Called by SeatTracker.bind; dice changes are reported back to that tracker only.
+    public void track(perudo.core.SeatTracker tracker, int seat) {
+        this.tracker = tracker;
+        this.seat = seat;
+    }
 
     public String name() { return name; }
     public DiceCup cup() { return cup; }
@@ -0,0 +1,42 @@
+package perudo.security;
+
+import perudo.accounts.Account;
+import perudo.accounts.PgAccountRepository;
+
+import java.io.Console;
+import java.util.Arrays;
+
+// Sets the network login password of an existing account. args: username
+public final class PasswordMain {
+    private PasswordMain() {}
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("usage: PasswordMain <username>");
+            System.exit(2);
+        }
+        Console console = System.console();
+        if (console == null) {
+            System.err.println("PasswordMain needs an interactive console.");
+            System.exit(2);
+        }
+        Account acc = new PgAccountRepository().findByUsername(args[0]);
+        if (acc == null) {
+            System.err.println("Account not found: " + args[0]);
+            System.exit(1);
+        }
+        char[] password = console.readPassword("New password for %s: ", acc.getUsername());
+        char[] again = console.readPassword("Repeat: ");
+        try {
+            if (password == null || password.length < 8 || !Arrays.equals(password, again)) {
+                System.err.println("Passwords must match and be at least 8 characters.");
+                System.exit(1);
+            }
+            new PgCredentialRepository().setPassword(acc.getId(), password);
+            System.out.println("Password set for " + acc.getUsername() + ".");
+        } finally {
+            if (password != null) Arrays.fill(password, ' ');
+            if (again != null) Arrays.fill(again, ' ');
+        }
+    }
+}
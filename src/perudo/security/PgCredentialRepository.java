@@ -0,0 +1,139 @@
+package perudo.security;
+
+import perudo.accounts.Account;
+import perudo.db.Db;
+import perudo.jfr.QueryEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.*;
+
+/**
+ * Passwords for network logins, stored as salted PBKDF2 hashes in account_credentials
+ * (sql/migrations/001_account_credentials.sql). An account without a row cannot log in remotely.
+ */
+public final class PgCredentialRepository {
+    private static final LatencyHistogram DB_AUTHENTICATE = Metrics.histogram("db.credential.authenticate");
+    private static final LatencyHistogram DB_REGISTER = Metrics.histogram("db.credential.register");
+    private static final LatencyHistogram DB_SET_PASSWORD = Metrics.histogram("db.credential.setPassword");
+
+    private static final int ITERATIONS = 120_000;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // The account, or null when the user is unknown, has no password, or the password is wrong.
+    public Account authenticate(String username, char[] password) {
+        String sql = "SELECT a.id, a.username, a.coins, c.password_hash, c.salt, c.iterations " +
+                "FROM accounts a JOIN account_credentials c ON c.account_id = a.id WHERE a.username = ?";
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("credential.authenticate");
+        int rows = 0;
+        Account acc;
+        byte[] expected;
+        byte[] salt;
+        int iterations;
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, username.trim());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                rows = 1;
+                acc = new Account(rs.getLong("id"), rs.getString("username"), rs.getInt("coins"));
+                expected = rs.getBytes("password_hash");
+                salt = rs.getBytes("salt");
+                iterations = rs.getInt("iterations");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("authenticate failed: " + e.getMessage(), e);
+        } finally {
+            DB_AUTHENTICATE.recordSince(start);
+            q.finish(rows);
+        }
+        return MessageDigest.isEqual(expected, hash(password, salt, iterations)) ? acc : null;
+    }
+
+    // Creates a new account with a password; null when the username is already taken.
+    public Account register(String username, char[] password) {
+        String insertAccount = "INSERT INTO accounts(username) VALUES (?) ON CONFLICT (username) DO NOTHING RETURNING id, username, coins";
+        byte[] salt = newSalt();
+        byte[] hash = hash(password, salt, ITERATIONS);
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("credential.register");
+        int rows = 0;
+        try (Connection c = Db.getConnection()) {
+            c.setAutoCommit(false);
+            Account acc;
+            try (PreparedStatement ps = c.prepareStatement(insertAccount)) {
+                ps.setString(1, username.trim());
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        c.rollback();
+                        return null;
+                    }
+                    acc = new Account(rs.getLong("id"), rs.getString("username"), rs.getInt("coins"));
+                }
+            }
+            rows = 1 + upsert(c, acc.getId(), hash, salt);
+            c.commit();
+            return acc;
+        } catch (SQLException e) {
+            throw new RuntimeException("register failed: " + e.getMessage(), e);
+        } finally {
+            DB_REGISTER.recordSince(start);
+            q.finish(rows);
+        }
+    }
+
+    // Sets or replaces the password of an existing account (console/admin use).
+    public void setPassword(long accountId, char[] password) {
+        byte[] salt = newSalt();
+        byte[] hash = hash(password, salt, ITERATIONS);
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("credential.setPassword");
+        int rows = 0;
+        try (Connection c = Db.getConnection()) {
+            rows = upsert(c, accountId, hash, salt);
+        } catch (SQLException e) {
+            throw new RuntimeException("setPassword failed: " + e.getMessage(), e);
+        } finally {
+            DB_SET_PASSWORD.recordSince(start);
+            q.finish(rows);
+        }
+    }
+
+    private static int upsert(Connection c, long accountId, byte[] hash, byte[] salt) throws SQLException {
+        String sql = "INSERT INTO account_credentials(account_id, password_hash, salt, iterations) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (account_id) DO UPDATE SET password_hash = EXCLUDED.password_hash, " +
+                "salt = EXCLUDED.salt, iterations = EXCLUDED.iterations";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            ps.setBytes(2, hash);
+            ps.setBytes(3, salt);
+            ps.setInt(4, ITERATIONS);
+            return ps.executeUpdate();
+        }
+    }
+
+    private static byte[] newSalt() {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return salt;
+    }
+
+    static byte[] hash(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
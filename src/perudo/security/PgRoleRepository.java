@@ -1,14 +1,44 @@
 package perudo.security;
 
 import perudo.db.Db;
+import perudo.db.QueryCache;
+import perudo.jfr.QueryEvent;
+import perudo.metrics.LatencyHistogram;
+import perudo.metrics.Metrics;
 
 import java.sql.*;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 public final class PgRoleRepository {
+    private static final LatencyHistogram DB_GET_ROLES_FOR_ACCOUNT = Metrics.histogram("db.role.getRolesForAccount");
+
+    // Role sets are read on every shop screen but change only through admin tooling.
+    private static final QueryCache<Long, Set<String>> ROLES = QueryCache.configured("roles", 1_000, 60_000);
 
     public Set<String> getRolesForAccount(long accountId) {
+        return new HashSet<>(ROLES.get(accountId, PgRoleRepository::loadRoles));
+    }
+
+    public boolean hasRole(long accountId, String roleCode) {
+        return ROLES.get(accountId, PgRoleRepository::loadRoles).contains(roleCode);
+    }
+
+    // Call after granting or revoking roles so the change is seen before the TTL runs out.
+    public static void invalidate(long accountId) {
+        ROLES.invalidate(accountId);
+    }
+
+    public static void invalidateAll() {
+        ROLES.clear();
+    }
+
+    public static String cacheReport() {
+        return ROLES.report();
+    }
+
+    private static Set<String> loadRoles(long accountId) {
         String sql =
                 "SELECT r.role_code " +
                         "FROM account_roles ar " +
@@ -16,20 +46,25 @@ public final class PgRoleRepository {
                         "WHERE ar.account_id = ?";
 
         Set<String> roles = new HashSet<>();
+        long start = Metrics.start();
+        QueryEvent q = QueryEvent.begin("role.getRolesForAccount");
+        int rows = 0;
         try (Connection c = Db.getInstance().getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, accountId);
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) roles.add(rs.getString("role_code"));
+                while (rs.next()) {
+                    roles.add(rs.getString("role_code"));
+                    rows++;
+                }
             }
             if (roles.isEmpty()) roles.add(RoleKinds.PLAYER);
-            return roles;
+            return Collections.unmodifiableSet(roles);
         } catch (SQLException e) {
             throw new RuntimeException("getRolesForAccount failed: " + e.getMessage(), e);
+        } finally {
+            DB_GET_ROLES_FOR_ACCOUNT.recordSince(start);
+            q.finish(rows);
         }
     }
-
-    public boolean hasRole(long accountId, String roleCode) {
-        return getRolesForAccount(accountId).contains(roleCode);
-    }
 }
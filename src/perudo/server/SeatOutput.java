@@ -0,0 +1,17 @@
+package perudo.server;
+
+public interface SeatOutput {
+    SeatOutput DISCARD = new SeatOutput() {
+        @Override
+        public void message(String s) {}
+
+        @Override
+        public void prompt(String prompt) {}
+    };
+
+    // A line of game output.
+    void message(String s);
+
+    // The seat is now waiting for one line of input; prompt may be empty.
+    void prompt(String prompt);
+}
@@ -0,0 +1,93 @@
+package perudo.server;
+
+import perudo.ui.GameUI;
+import perudo.ui.SeatClosedException;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * I/O for one remote seat. Output goes to a SeatOutput, input lines are queued by the transport.
+ * readLine() parks the table's virtual thread until the player answers.
+ */
+public final class SeatUI implements GameUI {
+    private static final String CLOSED = new String("<closed>");
+
+    private final SeatOutput out;
+    private final BlockingQueue<String> in = new LinkedBlockingQueue<>();
+    private final ServerMetrics metrics;
+    private volatile boolean closed;
+
+    public SeatUI(SeatOutput out, ServerMetrics metrics) {
+        this.out = out;
+        this.metrics = metrics;
+    }
+
+    // Called by the transport for every line the player sends.
+    public void offerLine(String line) {
+        if (!closed) in.add(line);
+    }
+
+    public void close() {
+        closed = true;
+        in.add(CLOSED);
+    }
+
+    public boolean isClosed() { return closed; }
+
+    @Override
+    public void println(String s) {
+        if (!closed) out.message(s);
+    }
+
+    @Override
+    public String readLine() {
+        return await("");
+    }
+
+    private String await(String prompt) {
+        if (closed) throw new SeatClosedException();
+        out.prompt(prompt);
+        long start = System.nanoTime();
+        metrics.promptStarted();
+        try {
+            String line = in.take();
+            if (line == CLOSED) {
+                in.add(CLOSED);
+                throw new SeatClosedException();
+            }
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("seat interrupted", e);
+        } finally {
+            metrics.promptFinished(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int readInt(String prompt, int min, int max) {
+        while (true) {
+            String s = await(prompt).trim();
+            try {
+                int v = Integer.parseInt(s);
+                if (v < min || v > max) {
+                    println("Enter a number in [" + min + ".." + max + "].");
+                    continue;
+                }
+                return v;
+            } catch (NumberFormatException e) {
+                println("Not a number.");
+            }
+        }
+    }
+
+    @Override
+    public String readNonEmpty(String prompt) {
+        while (true) {
+            String s = await(prompt).trim();
+            if (!s.isEmpty()) return s;
+            println("Empty. Try again.");
+        }
+    }
+}
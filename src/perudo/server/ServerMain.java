@@ -0,0 +1,78 @@
+package perudo.server;
+
+import perudo.accounts.PlayerWallet;
+import perudo.ai.SimpleBotStrategy;
+import perudo.core.DiceCup;
+import perudo.core.Game;
+import perudo.core.RngStreams;
+import perudo.players.BotPlayer;
+import perudo.players.HumanPlayer;
+import perudo.players.Player;
+import perudo.ui.GameUI;
+import perudo.ui.TableUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load demo: opens idle tables whose human seat never answers, plus bot-only tables that play
+ * through, and prints scheduler metrics and heap usage.
+ */
+public final class ServerMain {
+    private ServerMain() {}
+
+    // args: [idleTables] [botTables] [seconds]
+    public static void main(String[] args) throws InterruptedException {
+        int idleTables = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int botTables = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        RngStreams rng = RngStreams.fromEntropy();
+        try (TableScheduler scheduler = new TableScheduler()) {
+            long before = usedHeap();
+
+            for (int i = 0; i < idleTables; i++) {
+                RngStreams match = rng.forMatch(i);
+                SeatUI seat = new SeatUI(SeatOutput.DISCARD, scheduler.metrics());
+                List<Player> players = new ArrayList<>();
+                players.add(new HumanPlayer("Guest" + i, new DiceCup(5, match.forCup(0)),
+                        new PlayerWallet(0, Map.of()), seat, null));
+                addBots(players, 2, match);
+                Game game = Game.create(players, 5, 0, new TableUI(List.<GameUI>of(seat)), null, null);
+                scheduler.start(game, List.of(seat));
+            }
+
+            for (int i = 0; i < botTables; i++) {
+                RngStreams match = rng.forMatch(idleTables + i);
+                List<Player> players = new ArrayList<>();
+                addBots(players, 4, match);
+                scheduler.start(Game.createHeadless(players, 5, match.forTable().nextInt(4)), List.of());
+            }
+
+            for (int s = 0; s < seconds; s++) {
+                Thread.sleep(1_000);
+                System.out.println(scheduler.metrics().report());
+            }
+
+            System.gc();
+            long after = usedHeap();
+            System.out.printf("Heap used by %d idle tables: %.1f MB (%.1f KB/table)%n",
+                    scheduler.metrics().activeTables(), (after - before) / 1e6,
+                    scheduler.metrics().activeTables() == 0 ? 0 : (after - before) / 1e3 / scheduler.metrics().activeTables());
+        }
+    }
+
+    private static void addBots(List<Player> players, int count, RngStreams match) {
+        for (int b = 0; b < count; b++) {
+            int seat = players.size();
+            players.add(new BotPlayer("Bot" + (b + 1), new DiceCup(5, match.forCup(seat)),
+                    new SimpleBotStrategy(match.forBot(seat))));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package perudo.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ServerMetrics {
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder tablesCreated = new LongAdder();
+    private final LongAdder tablesFinished = new LongAdder();
+    private final LongAdder tablesFailed = new LongAdder();
+    private final LongAdder tablesCancelled = new LongAdder();
+    private final LongAdder activeTables = new LongAdder();
+    private final LongAdder waitingPrompts = new LongAdder();
+    private final LongAdder promptCount = new LongAdder();
+    private final LongAdder promptWaitNanos = new LongAdder();
+    private final AtomicLong promptWaitMaxNanos = new AtomicLong();
+
+    private long lastSampleNanos = System.nanoTime();
+    private long lastSampleTurns;
+
+    public LongAdder turnCounter() { return turns; }
+
+    void tableStarted() {
+        tablesCreated.increment();
+        activeTables.increment();
+    }
+
+    void tableEnded(Table.State state) {
+        activeTables.decrement();
+        if (state == Table.State.FAILED) tablesFailed.increment();
+        else if (state == Table.State.CANCELLED) tablesCancelled.increment();
+        else tablesFinished.increment();
+    }
+
+    void promptStarted() {
+        waitingPrompts.increment();
+    }
+
+    void promptFinished(long waitedNanos) {
+        waitingPrompts.decrement();
+        promptCount.increment();
+        promptWaitNanos.add(waitedNanos);
+        promptWaitMaxNanos.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    public long activeTables() { return activeTables.sum(); }
+    public long tablesCreated() { return tablesCreated.sum(); }
+    public long tablesFinished() { return tablesFinished.sum(); }
+    public long tablesFailed() { return tablesFailed.sum(); }
+    public long tablesCancelled() { return tablesCancelled.sum(); }
+    public long waitingPrompts() { return waitingPrompts.sum(); }
+    public long turns() { return turns.sum(); }
+    public long prompts() { return promptCount.sum(); }
+
+    public double avgPromptWaitMillis() {
+        long n = promptCount.sum();
+        return n == 0 ? 0 : promptWaitNanos.sum() / 1e6 / n;
+    }
+
+    public double maxPromptWaitMillis() {
+        return promptWaitMaxNanos.get() / 1e6;
+    }
+
+    // Turns per second since the previous call.
+    public synchronized double sampleTurnsPerSecond() {
+        long now = System.nanoTime();
+        long t = turns.sum();
+        double rate = now == lastSampleNanos ? 0 : (t - lastSampleTurns) * 1e9 / (now - lastSampleNanos);
+        lastSampleNanos = now;
+        lastSampleTurns = t;
+        return rate;
+    }
+
+    public String report() {
+        return String.format("tables active=%d created=%d finished=%d failed=%d cancelled=%d | turns=%d (%.0f/s) | "
+                        + "prompts waiting=%d answered=%d avgWait=%.1fms maxWait=%.1fms",
+                activeTables(), tablesCreated(), tablesFinished(), tablesFailed(), tablesCancelled(),
+                turns(), sampleTurnsPerSecond(),
+                waitingPrompts(), prompts(), avgPromptWaitMillis(), maxPromptWaitMillis());
+    }
+}
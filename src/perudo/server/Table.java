@@ -0,0 +1,66 @@
+package perudo.server;
+
+import perudo.core.Game;
+import perudo.players.Player;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class Table {
+    public enum State { RUNNING, FINISHED, FAILED, CANCELLED }
+
+    private final long id;
+    private final Game game;
+    private final List<SeatUI> seats;
+    private final long createdAtMillis;
+    private volatile State state = State.RUNNING;
+    private volatile Player winner;
+    private volatile Throwable failure;
+    private volatile long endedAtMillis;
+    private volatile Future<?> future;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    Table(long id, Game game, List<SeatUI> seats) {
+        this.id = id;
+        this.game = game;
+        this.seats = List.copyOf(seats);
+        this.createdAtMillis = System.currentTimeMillis();
+    }
+
+    public long id() { return id; }
+    public Game game() { return game; }
+    public List<SeatUI> seats() { return seats; }
+    public State state() { return state; }
+    public Player winner() { return winner; }
+    public Throwable failure() { return failure; }
+    public long createdAtMillis() { return createdAtMillis; }
+    public long endedAtMillis() { return endedAtMillis; }
+    public boolean isDone() { return state != State.RUNNING; }
+
+    void attach(Future<?> future) { this.future = future; }
+    Future<?> future() { return future; }
+
+    // Whoever claims the table first (its run, or a cancel before it ran) reports how it ended.
+    boolean claim() { return claimed.compareAndSet(false, true); }
+
+    void finished(Player winner) {
+        this.winner = winner;
+        end(State.FINISHED);
+    }
+
+    void failed(Throwable t) {
+        this.failure = t;
+        end(State.FAILED);
+    }
+
+    void cancelled() {
+        end(State.CANCELLED);
+    }
+
+    private void end(State s) {
+        this.endedAtMillis = System.currentTimeMillis();
+        this.state = s;
+        for (SeatUI seat : seats) seat.close();
+    }
+}
@@ -0,0 +1,124 @@
+package perudo.server;
+
+import perudo.core.Game;
+import perudo.players.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hosts many games in one process. Every table runs on its own virtual thread, so a table
+ * waiting on a human prompt only costs a parked virtual thread, not a platform thread.
+ */
+public final class TableScheduler implements AutoCloseable {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService reaper;
+    private final Map<Long, Table> tables = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final long retainFinishedMillis;
+
+    public TableScheduler() {
+        this(30_000, 5_000);
+    }
+
+    public TableScheduler(long retainFinishedMillis, long reapIntervalMillis) {
+        this.retainFinishedMillis = retainFinishedMillis;
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "perudo-table-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        reaper.scheduleAtFixedRate(this::reap, reapIntervalMillis, reapIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public ServerMetrics metrics() { return metrics; }
+
+    public Table start(Game game, List<SeatUI> seats) {
+        return start(game, seats, null);
+    }
+
+    // onEnd runs after the game finished, failed or was cancelled: on the table's thread, or on the
+    // cancelling thread when the table was cancelled before it started.
+    public Table start(Game game, List<SeatUI> seats, Consumer<Table> onEnd) {
+        Table table = new Table(ids.incrementAndGet(), game, seats);
+        game.setTurnCounter(metrics.turnCounter());
+        FutureTask<Void> task = new FutureTask<>(() -> run(table, onEnd), null) {
+            @Override
+            protected void done() {
+                // cancelled before a thread picked it up: run() never executes
+                if (isCancelled() && table.claim()) {
+                    table.cancelled();
+                    ended(table, onEnd);
+                }
+            }
+        };
+        // attached before the table is visible, so cancel() and close() always find its future
+        table.attach(task);
+        tables.put(table.id(), table);
+        metrics.tableStarted();
+        executor.execute(task);
+        return table;
+    }
+
+    private void run(Table table, Consumer<Table> onEnd) {
+        if (!table.claim()) return;
+        try {
+            Player winner = table.game().play();
+            table.finished(winner);
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                table.cancelled();
+            } else {
+                table.failed(e);
+            }
+        } finally {
+            ended(table, onEnd);
+        }
+    }
+
+    private void ended(Table table, Consumer<Table> onEnd) {
+        metrics.tableEnded(table.state());
+        if (onEnd != null) onEnd.accept(table);
+    }
+
+    public Table get(long id) {
+        return tables.get(id);
+    }
+
+    public Collection<Table> tables() {
+        return tables.values();
+    }
+
+    public boolean cancel(long id) {
+        Table t = tables.get(id);
+        if (t == null || t.isDone()) return false;
+        t.future().cancel(true);
+        return true;
+    }
+
+    // Drops finished tables once they are older than the retention window. Returns how many were removed.
+    public int reap() {
+        long cutoff = System.currentTimeMillis() - retainFinishedMillis;
+        List<Long> dead = new ArrayList<>();
+        for (Table t : tables.values()) {
+            if (t.isDone() && t.endedAtMillis() <= cutoff) dead.add(t.id());
+        }
+        for (Long id : dead) tables.remove(id);
+        return dead.size();
+    }
+
+    @Override
+    public void close() {
+        reaper.shutdownNow();
+        for (Table t : tables.values()) {
+            if (!t.isDone()) t.future().cancel(true);
+        }
+        executor.shutdownNow();
+    }
+}
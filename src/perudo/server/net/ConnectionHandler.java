@@ -0,0 +1,10 @@
+package perudo.server.net;
+
+// Callbacks run on the selector thread and must not block.
+public interface ConnectionHandler {
+    void onOpen(LineConnection conn);
+
+    void onLine(LineConnection conn, String line);
+
+    void onClose(LineConnection conn);
+}
@@ -0,0 +1,123 @@
+package perudo.server.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class LineConnection {
+    static final int MAX_LINE_BYTES = 1024;
+    // A client that lets this much output pile up has stopped reading; it is dropped rather than buffered.
+    static final int MAX_QUEUED_BYTES = 256 * 1024;
+
+    private final long id;
+    private final SocketChannel channel;
+    private final LineServer server;
+    private final Queue<ByteBuffer> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean writeRequested = new AtomicBoolean();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final ByteBuffer[] gather = new ByteBuffer[64];
+    private byte[] partial = new byte[128];
+    private int partialLen;
+    private SelectionKey key;
+    private volatile boolean closed;
+    private volatile Object attachment;
+
+    LineConnection(long id, SocketChannel channel, LineServer server) {
+        this.id = id;
+        this.channel = channel;
+        this.server = server;
+    }
+
+    public long id() { return id; }
+
+    public boolean isClosed() { return closed; }
+
+    public Object attachment() { return attachment; }
+
+    public void attach(Object attachment) { this.attachment = attachment; }
+
+    // Safe from any thread: the line is queued and written by the selector thread.
+    public void send(String line) {
+        if (closed || overflowed.get()) return;
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        if (queuedBytes.addAndGet(bytes.length) > MAX_QUEUED_BYTES) {
+            queuedBytes.addAndGet(-bytes.length);
+            if (overflowed.compareAndSet(false, true)) close();
+            return;
+        }
+        outgoing.add(ByteBuffer.wrap(bytes));
+        if (writeRequested.compareAndSet(false, true)) server.requestWrite(this);
+    }
+
+    public void close() {
+        server.requestClose(this);
+    }
+
+    void register(SelectionKey key) {
+        this.key = key;
+    }
+
+    SelectionKey key() { return key; }
+
+    SocketChannel channel() { return channel; }
+
+    void markClosed() { closed = true; }
+
+    void clearWriteRequest() {
+        writeRequested.set(false);
+    }
+
+    boolean hasOutput() {
+        return !outgoing.isEmpty();
+    }
+
+    // Writes as much as the socket accepts, gathering queued lines into one syscall;
+    // true when everything queued has been written.
+    boolean flush() throws IOException {
+        while (true) {
+            int n = 0;
+            for (ByteBuffer b : outgoing) {
+                gather[n++] = b;
+                if (n == gather.length) break;
+            }
+            if (n == 0) return true;
+
+            channel.write(gather, 0, n);
+            for (int i = 0; i < n; i++) {
+                if (gather[i].hasRemaining()) {
+                    Arrays.fill(gather, null);
+                    return false;
+                }
+                queuedBytes.addAndGet(-outgoing.poll().capacity());
+            }
+            Arrays.fill(gather, 0, n, null);
+        }
+    }
+
+    // Splits bytes into lines (LF, optional CR). Returns false if a line exceeds MAX_LINE_BYTES.
+    boolean consume(ByteBuffer in, ConnectionHandler handler) {
+        while (in.hasRemaining()) {
+            byte c = in.get();
+            if (c == '\n') {
+                int len = partialLen;
+                if (len > 0 && partial[len - 1] == '\r') len--;
+                String line = new String(partial, 0, len, StandardCharsets.UTF_8);
+                partialLen = 0;
+                handler.onLine(this, line);
+                continue;
+            }
+            if (partialLen == MAX_LINE_BYTES) return false;
+            if (partialLen == partial.length) partial = Arrays.copyOf(partial, Math.min(MAX_LINE_BYTES, partial.length * 2));
+            partial[partialLen++] = c;
+        }
+        return true;
+    }
+}
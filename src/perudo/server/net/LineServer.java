@@ -0,0 +1,189 @@
+package perudo.server.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking line-protocol front end. One selector thread serves every socket; games talk to
+ * connections only through LineConnection.send, which queues bytes for this thread to write.
+ */
+public final class LineServer implements AutoCloseable {
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ConnectionHandler handler;
+    private final ByteBuffer readBuf = ByteBuffer.allocateDirect(16 * 1024);
+    private final Queue<LineConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Queue<LineConnection> pendingCloses = new ConcurrentLinkedQueue<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Thread loop;
+    private volatile boolean running;
+
+    public LineServer(InetSocketAddress address, ConnectionHandler handler) {
+        this.handler = handler;
+        try {
+            this.selector = Selector.open();
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(address, 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("server bind failed: " + e.getMessage(), e);
+        }
+        this.loop = new Thread(this::run, "perudo-net-selector");
+        this.loop.setDaemon(true);
+    }
+
+    public int port() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public void start() {
+        running = true;
+        loop.start();
+    }
+
+    void requestWrite(LineConnection conn) {
+        pendingWrites.add(conn);
+        selector.wakeup();
+    }
+
+    void requestClose(LineConnection conn) {
+        pendingCloses.add(conn);
+        selector.wakeup();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                if (running) throw new UncheckedIOException("select failed: " + e.getMessage(), e);
+                return;
+            }
+            if (!running) return;
+
+            LineConnection c;
+            while ((c = pendingWrites.poll()) != null) {
+                c.clearWriteRequest();
+                SelectionKey key = c.key();
+                if (key != null && key.isValid()) key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                if (!key.isValid()) continue;
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                try {
+                    handleIo(key);
+                } catch (RuntimeException e) {
+                    // a failing handler callback only costs its own connection, not the selector thread
+                    closeConnection((LineConnection) key.attachment());
+                }
+            }
+
+            while ((c = pendingCloses.poll()) != null) {
+                SelectionKey key = c.key();
+                if (key != null && key.isValid() && c.hasOutput()) {
+                    try {
+                        c.flush();
+                    } catch (IOException ignored) {
+                    }
+                }
+                closeConnection(c);
+            }
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel ch;
+            while ((ch = serverChannel.accept()) != null) {
+                ch.configureBlocking(false);
+                ch.socket().setTcpNoDelay(true);
+                LineConnection conn = new LineConnection(ids.incrementAndGet(), ch, this);
+                conn.register(ch.register(selector, SelectionKey.OP_READ, conn));
+                try {
+                    handler.onOpen(conn);
+                } catch (RuntimeException e) {
+                    closeConnection(conn);
+                }
+            }
+        } catch (IOException e) {
+            // a failed accept only affects that client
+        }
+    }
+
+    private void handleIo(SelectionKey key) {
+        LineConnection conn = (LineConnection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                readBuf.clear();
+                int n = conn.channel().read(readBuf);
+                if (n < 0) {
+                    closeConnection(conn);
+                    return;
+                }
+                readBuf.flip();
+                if (!conn.consume(readBuf, handler)) {
+                    conn.send("ERR line too long");
+                    // send() only queues; write it out before the socket goes away
+                    conn.flush();
+                    closeConnection(conn);
+                    return;
+                }
+            }
+            if (key.isValid() && key.isWritable()) {
+                if (conn.flush()) key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            closeConnection(conn);
+        }
+    }
+
+    private void closeConnection(LineConnection conn) {
+        if (conn.isClosed()) return;
+        conn.markClosed();
+        SelectionKey key = conn.key();
+        if (key != null) key.cancel();
+        try {
+            conn.channel().close();
+        } catch (IOException ignored) {
+        }
+        try {
+            handler.onClose(conn);
+        } catch (RuntimeException ignored) {
+            // the connection is gone either way
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof LineConnection) closeConnection((LineConnection) key.attachment());
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package perudo.server.net;
+
+import perudo.accounts.*;
+import perudo.ai.SimpleBotStrategy;
+import perudo.core.DiceCup;
+import perudo.core.Game;
+import perudo.core.RngStreams;
+import perudo.players.BotPlayer;
+import perudo.players.HumanPlayer;
+import perudo.players.Player;
+import perudo.security.PgCredentialRepository;
+import perudo.server.SeatOutput;
+import perudo.server.SeatUI;
+import perudo.server.Table;
+import perudo.server.TableScheduler;
+import perudo.ui.GameUI;
+import perudo.ui.TableUI;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seats remote players at tables. Line protocol, server to client:
+ *   MSG text    - game output
+ *   ASK prompt  - the server waits for exactly one line (prompt may be empty)
+ *   END winner  - the table finished; the player is queued for the next one
+ * Client to server: one answer line per ASK.
+ *
+ * With repositories, a new connection first logs in with username and password (a new username
+ * registers) and may visit the shop (ShopService prompts run over the same protocol); an account
+ * can only be logged in once at a time. Without repositories players join as guests.
+ */
+public final class Lobby implements ConnectionHandler {
+    private static final int MAX_DICE = 5;
+
+    private final TableScheduler scheduler;
+    private final int humansPerTable;
+    private final int botsPerTable;
+    private final PgAccountRepository accountRepo;
+    private final PgBonusRepository bonusRepo;
+    private final RngStreams rng = RngStreams.fromEntropy();
+    private final AtomicLong matchIndex = new AtomicLong();
+    private final Deque<Session> waiting = new ArrayDeque<>();
+    private final PgCredentialRepository credentials = new PgCredentialRepository();
+    private final Set<Long> online = ConcurrentHashMap.newKeySet();
+
+    public Lobby(TableScheduler scheduler, int humansPerTable, int botsPerTable,
+                 PgAccountRepository accountRepo, PgBonusRepository bonusRepo) {
+        if (humansPerTable < 1) throw new IllegalArgumentException("humansPerTable must be >= 1");
+        if (humansPerTable + botsPerTable < 2) throw new IllegalArgumentException("a table needs at least 2 players");
+        this.scheduler = scheduler;
+        this.humansPerTable = humansPerTable;
+        this.botsPerTable = botsPerTable;
+        this.accountRepo = accountRepo;
+        this.bonusRepo = bonusRepo;
+    }
+
+    private static final class Session implements SeatOutput {
+        private final LineConnection conn;
+        private volatile SeatUI seat;
+        private String name;
+        private PlayerWallet wallet;
+        private volatile long accountId = -1;
+
+        private Session(LineConnection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public void message(String s) {
+            conn.send("MSG " + s);
+        }
+
+        @Override
+        public void prompt(String prompt) {
+            conn.send("ASK " + prompt);
+        }
+    }
+
+    @Override
+    public void onOpen(LineConnection conn) {
+        Session s = new Session(conn);
+        conn.attach(s);
+        s.message("Welcome to PERUDO.");
+
+        if (accountRepo == null) {
+            s.name = "Guest" + conn.id();
+            s.wallet = new PlayerWallet(0, Map.of());
+            enqueue(s);
+            return;
+        }
+
+        // Login and shop block on DB and on the player, so they get their own virtual thread.
+        SeatUI login = new SeatUI(s, scheduler.metrics());
+        s.seat = login;
+        Thread.ofVirtual().name("perudo-login-" + conn.id()).start(() -> login(s, login));
+    }
+
+    private void login(Session s, SeatUI ui) {
+        try {
+            Account acc = authenticate(ui);
+            if (acc == null) {
+                fail(s, ui, "Login failed.");
+                return;
+            }
+            if (!online.add(acc.getId())) {
+                fail(s, ui, "Account " + acc.getUsername() + " is already logged in.");
+                return;
+            }
+            s.accountId = acc.getId();
+            // onClose may already have run before the account was claimed
+            if (s.conn.isClosed()) {
+                online.remove(acc.getId());
+                ui.close();
+                return;
+            }
+            ui.println("Enter shop before game? [Y/N]");
+            if (ui.readLine().trim().toUpperCase().startsWith("Y")) {
+                ShopService.openShop(ui, accountRepo, bonusRepo, acc);
+            }
+            s.name = acc.getUsername();
+            s.wallet = new PlayerWallet(acc.getId(), bonusRepo.getInventory(acc.getId()));
+            s.seat = null;
+            ui.close();
+            enqueue(s);
+        } catch (RuntimeException e) {
+            fail(s, ui, "Login failed: " + e.getMessage());
+        }
+    }
+
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final int PASSWORD_ATTEMPTS = 3;
+
+    // Existing accounts need their password; an unknown username is registered with a new one.
+    private Account authenticate(SeatUI ui) {
+        String username = ui.readNonEmpty("Username: ");
+        PgAccountRepository.validateUsername(username);
+
+        if (accountRepo.findByUsername(username) == null) {
+            ui.println("New account '" + username + "'.");
+            String password = ui.readNonEmpty("Choose a password: ");
+            if (password.length() < MIN_PASSWORD_LENGTH) {
+                ui.println("Password must be at least " + MIN_PASSWORD_LENGTH + " characters.");
+                return null;
+            }
+            if (!password.equals(ui.readNonEmpty("Repeat password: "))) {
+                ui.println("Passwords do not match.");
+                return null;
+            }
+            Account acc = credentials.register(username, password.toCharArray());
+            if (acc == null) ui.println("That username was just taken.");
+            return acc;
+        }
+
+        for (int attempt = 0; attempt < PASSWORD_ATTEMPTS; attempt++) {
+            Account acc = credentials.authenticate(username, ui.readNonEmpty("Password: ").toCharArray());
+            if (acc != null) return acc;
+            ui.println("Wrong password (accounts created at the console need one set with perudo.security.PasswordMain).");
+        }
+        return null;
+    }
+
+    private static void fail(Session s, SeatUI ui, String message) {
+        ui.close();
+        if (!s.conn.isClosed()) {
+            s.message(message);
+            s.conn.close();
+        }
+    }
+
+    @Override
+    public void onLine(LineConnection conn, String line) {
+        Session s = (Session) conn.attachment();
+        SeatUI seat = s == null ? null : s.seat;
+        if (seat != null) seat.offerLine(line);
+    }
+
+    @Override
+    public void onClose(LineConnection conn) {
+        Session s = (Session) conn.attachment();
+        if (s == null) return;
+        synchronized (this) {
+            waiting.remove(s);
+        }
+        if (s.accountId >= 0) online.remove(s.accountId);
+        SeatUI seat = s.seat;
+        if (seat != null) seat.close();
+    }
+
+    private void enqueue(Session s) {
+        List<Session> seated = null;
+        synchronized (this) {
+            if (s.conn.isClosed()) return;
+            waiting.add(s);
+            if (waiting.size() >= humansPerTable) {
+                seated = new ArrayList<>(humansPerTable);
+                for (int i = 0; i < humansPerTable; i++) seated.add(waiting.poll());
+            }
+        }
+        if (seated == null) {
+            s.message("Waiting for players...");
+            return;
+        }
+        openTable(seated);
+    }
+
+    private void openTable(List<Session> sessions) {
+        RngStreams match = rng.forMatch(matchIndex.getAndIncrement());
+        List<Player> players = new ArrayList<>();
+        List<SeatUI> seats = new ArrayList<>();
+
+        for (Session s : sessions) {
+            SeatUI seat = new SeatUI(s, scheduler.metrics());
+            s.seat = seat;
+            seats.add(seat);
+            int idx = players.size();
+            players.add(new HumanPlayer(s.name, new DiceCup(MAX_DICE, match.forCup(idx)), s.wallet, seat,
+                    new SimpleBotStrategy(match.forBot(idx))));
+        }
+        for (int b = 1; b <= botsPerTable; b++) {
+            int idx = players.size();
+            players.add(new BotPlayer("Bot" + b, new DiceCup(MAX_DICE, match.forCup(idx)),
+                    new SimpleBotStrategy(match.forBot(idx))));
+        }
+
+        GameUI tableUi = new TableUI(new ArrayList<>(seats));
+        int start = match.forTable().nextInt(players.size());
+        Game game = Game.create(players, MAX_DICE, start, tableUi, accountRepo, bonusRepo);
+        scheduler.start(game, seats, table -> tableEnded(table, sessions));
+    }
+
+    private void tableEnded(Table table, List<Session> sessions) {
+        String winner = table.winner() == null ? "-" : table.winner().name();
+        for (Session s : sessions) {
+            s.seat = null;
+            if (s.conn.isClosed()) continue;
+            s.conn.send("END " + winner);
+            if (s.wallet != null && bonusRepo != null) {
+                try {
+                    s.wallet = new PlayerWallet(s.wallet.getAccountId(), bonusRepo.getInventory(s.wallet.getAccountId()));
+                } catch (RuntimeException e) {
+                    s.message("Inventory reload failed: " + e.getMessage());
+                }
+            }
+            enqueue(s);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package perudo.server.net;
+
+import perudo.server.TableScheduler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Starts a guest-mode LineServer on a loopback port and drives it with scripted clients from a
+ * single selector thread. Turn latency is the time from sending an answer to receiving the next ASK.
+ */
+public final class LoopbackLoadTest {
+    private LoopbackLoadTest() {}
+
+    // args: [clients] [seconds] [botsPerTable]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int bots = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        try (TableScheduler scheduler = new TableScheduler();
+             LineServer server = new LineServer(new InetSocketAddress("127.0.0.1", 0),
+                     new Lobby(scheduler, 1, bots, null, null))) {
+            server.start();
+
+            Client[] all = new Client[clients];
+            try (Selector selector = Selector.open()) {
+                for (int i = 0; i < clients; i++) {
+                    SocketChannel ch = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.port()));
+                    ch.configureBlocking(false);
+                    ch.socket().setTcpNoDelay(true);
+                    all[i] = new Client(ch);
+                    ch.register(selector, SelectionKey.OP_READ, all[i]);
+                }
+
+                long end = System.nanoTime() + seconds * 1_000_000_000L;
+                ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+                while (System.nanoTime() < end) {
+                    selector.select(100);
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        Client c = (Client) key.attachment();
+                        buf.clear();
+                        int n = c.channel.read(buf);
+                        if (n < 0) {
+                            key.cancel();
+                            continue;
+                        }
+                        buf.flip();
+                        c.consume(buf);
+                    }
+                }
+                for (Client c : all) c.channel.close();
+            }
+
+            report(all, seconds);
+            System.out.println("Server: " + scheduler.metrics().report());
+        }
+    }
+
+    private static void report(Client[] all, int seconds) {
+        int total = 0;
+        long games = 0;
+        for (Client c : all) {
+            total += c.latencyCount;
+            games += c.games;
+        }
+        long[] lat = new long[total];
+        int k = 0;
+        for (Client c : all) {
+            System.arraycopy(c.latencies, 0, lat, k, c.latencyCount);
+            k += c.latencyCount;
+        }
+        Arrays.sort(lat);
+        System.out.printf("Clients: %d, games: %d, turns: %d (%.0f turns/s)%n",
+                all.length, games, total, total / (double) seconds);
+        if (total == 0) return;
+        System.out.printf("Turn latency: p50=%.3fms p90=%.3fms p99=%.3fms p999=%.3fms max=%.3fms%n",
+                pct(lat, 0.50), pct(lat, 0.90), pct(lat, 0.99), pct(lat, 0.999), lat[lat.length - 1] / 1e6);
+    }
+
+    private static double pct(long[] sorted, double p) {
+        int i = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+
+    private static final class Client {
+        private final SocketChannel channel;
+        private final StringBuilder line = new StringBuilder();
+        private long[] latencies = new long[256];
+        private int latencyCount;
+        private long sentAt;
+        private long games;
+        private boolean canCall;
+
+        private Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void consume(ByteBuffer buf) throws IOException {
+            while (buf.hasRemaining()) {
+                char c = (char) buf.get();
+                if (c != '\n') {
+                    line.append(c);
+                    continue;
+                }
+                onLine(line.toString());
+                line.setLength(0);
+            }
+        }
+
+        private void onLine(String s) throws IOException {
+            if (s.startsWith("MSG ")) {
+                if (s.startsWith("MSG Choose:")) canCall = s.contains("[L]iar");
+                return;
+            }
+            if (s.startsWith("END ")) {
+                games++;
+                sentAt = 0;
+                return;
+            }
+            if (!s.startsWith("ASK")) return;
+
+            long now = System.nanoTime();
+            if (sentAt != 0) record(now - sentAt);
+
+            String prompt = s.length() > 4 ? s.substring(4) : "";
+            String answer;
+            if (prompt.startsWith("Quantity")) answer = "1";
+            else if (prompt.startsWith("Face")) answer = "2";
+            else answer = canCall ? "L" : "B";
+
+            ByteBuffer out = ByteBuffer.wrap((answer + "\n").getBytes(StandardCharsets.UTF_8));
+            while (out.hasRemaining()) channel.write(out);
+            sentAt = System.nanoTime();
+        }
+
+        private void record(long nanos) {
+            if (latencyCount == latencies.length) latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            latencies[latencyCount++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package perudo.server.net;
+
+import perudo.accounts.PgAccountRepository;
+import perudo.accounts.PgBonusRepository;
+import perudo.accounts.RewardSettlement;
+import perudo.db.Db;
+import perudo.security.PgRoleRepository;
+import perudo.server.TableScheduler;
+
+import java.net.InetSocketAddress;
+
+public final class NetServerMain {
+    private NetServerMain() {}
+
+    // args: [port] [humansPerTable] [botsPerTable] [guest|accounts]
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        int humans = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int bots = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        boolean accounts = args.length > 3 && args[3].equalsIgnoreCase("accounts");
+
+        if (accounts && System.getProperty("perudo.bonus.journal") == null) {
+            // the journal is locked by one process; a shared default would stop a second server or console
+            System.err.println("Accounts mode needs its own bonus journal: -Dperudo.bonus.journal=<file>");
+            System.exit(2);
+        }
+        PgAccountRepository accRepo = accounts ? new PgAccountRepository() : null;
+        PgBonusRepository bonusRepo = accounts ? new PgBonusRepository(accRepo) : null;
+        // replay what a previous run of this server left pending before anyone reads an inventory
+        if (accounts) PgBonusRepository.journal();
+
+        try (TableScheduler scheduler = new TableScheduler();
+             LineServer server = new LineServer(new InetSocketAddress(port),
+                     new Lobby(scheduler, humans, bots, accRepo, bonusRepo))) {
+            server.start();
+            System.out.println("PERUDO line server on port " + server.port()
+                    + " (" + humans + " humans + " + bots + " bots per table, " + (accounts ? "accounts" : "guests") + ")");
+            while (true) {
+                Thread.sleep(10_000);
+                System.out.println(scheduler.metrics().report());
+                if (accounts) {
+                    System.out.println(Db.pool().report());
+                    System.out.println(PgAccountRepository.cacheReport());
+                    System.out.println(PgBonusRepository.cacheReport());
+                    System.out.println(PgRoleRepository.cacheReport());
+                    System.out.println(RewardSettlement.shared().report());
+                }
+            }
+        }
+    }
+}
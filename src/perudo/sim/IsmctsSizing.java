@@ -0,0 +1,55 @@
+package perudo.sim;
+
+import perudo.ai.IsmctsBotStrategy;
+import perudo.ai.SimpleBotStrategy;
+import perudo.core.DiceCup;
+import perudo.core.Game;
+import perudo.core.RngStreams;
+import perudo.players.BotPlayer;
+import perudo.players.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures ISMCTS iterations/s on this machine so the per-move budget can be sized:
+ * plays headless matches where seat 0 searches with a fixed time budget.
+ */
+public final class IsmctsSizing {
+    private IsmctsSizing() {}
+
+    // args: [players] [maxDice] [moveMillis] [matches] [threads...]
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int maxDice = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long moveMillis = args.length > 2 ? Long.parseLong(args[2]) : 10;
+        int matches = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int i = 4; i < args.length; i++) threadCounts.add(Integer.parseInt(args[i]));
+        if (threadCounts.isEmpty()) {
+            threadCounts.add(1);
+            if (cores > 1) threadCounts.add(cores);
+        }
+
+        RngStreams rng = new RngStreams(1);
+        for (int threads : threadCounts) {
+            IsmctsBotStrategy ismcts = new IsmctsBotStrategy(rng.forBot(-1), 0, moveMillis, threads);
+            int wins = 0;
+            for (int m = 0; m < matches; m++) {
+                RngStreams match = rng.forMatch(m);
+                List<Player> table = new ArrayList<>();
+                for (int seat = 0; seat < players; seat++) {
+                    table.add(new BotPlayer("Bot" + (seat + 1), new DiceCup(maxDice, match.forCup(seat)),
+                            seat == 0 ? ismcts : new SimpleBotStrategy(match.forBot(seat))));
+                }
+                Player winner = Game.createHeadless(table, maxDice, match.forTable().nextInt(players)).play();
+                if (winner == table.get(0)) wins++;
+            }
+            System.out.printf("threads=%d budget=%dms: %d decisions, %.0f iterations/s, %.0f iterations/move, won %d/%d%n",
+                    threads, moveMillis, ismcts.decisions(), ismcts.iterationsPerSecond(),
+                    ismcts.decisions() == 0 ? 0 : (double) ismcts.iterations() / ismcts.decisions(), wins, matches);
+        }
+    }
+}
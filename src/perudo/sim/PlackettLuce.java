@@ -0,0 +1,187 @@
+package perudo.sim;
+
+/**
+ * Plackett-Luce ratings from match winners: a table of strategies S is won by i with probability
+ * gamma_i / sum over S of gamma_j, and each match is one observation (not one per beaten opponent).
+ * For two-player tables this is Bradley-Terry. Fitted by MM (Hunter 2004) and reported on the Elo scale
+ * (400 points = 10:1 odds) around a mean of 1500; standard errors come from the inverse Fisher
+ * information under a zero-mean constraint.
+ */
+final class PlackettLuce {
+    static final double ELO_PER_NAT = 400 / Math.log(10);
+    static final double ELO_MEAN = 1500;
+
+    final double[] theta;
+    final double[][] cov;
+
+    private PlackettLuce(double[] theta, double[][] cov) {
+        this.theta = theta;
+        this.cov = cov;
+    }
+
+    double elo(int i) {
+        return ELO_MEAN + ELO_PER_NAT * theta[i];
+    }
+
+    double eloStdErr(int i) {
+        return ELO_PER_NAT * Math.sqrt(Math.max(0, cov[i][i]));
+    }
+
+    // Standard error of elo(i) - elo(j).
+    double diffStdErr(int i, int j) {
+        return ELO_PER_NAT * Math.sqrt(Math.max(0, cov[i][i] + cov[j][j] - 2 * cov[i][j]));
+    }
+
+    /**
+     * tables[t] is a bit mask of the strategies seated together, matches[t] how often that table was
+     * played and wins[t][i] how often strategy i won it. One drawn two-player match per pair acts as a
+     * prior so unbeaten strategies stay finite.
+     */
+    static PlackettLuce fit(int k, long[] tables, long[] matches, long[][] wins) {
+        int n = tables.length + k * (k - 1) / 2;
+        int[][] members = new int[n][];
+        double[] count = new double[n];
+        double[][] won = new double[n][];
+        int t = 0;
+        for (; t < tables.length; t++) {
+            members[t] = bits(tables[t]);
+            count[t] = matches[t];
+            won[t] = new double[members[t].length];
+            for (int m = 0; m < members[t].length; m++) won[t][m] = wins[t][members[t][m]];
+        }
+        for (int i = 0; i < k; i++) {
+            for (int j = i + 1; j < k; j++, t++) {
+                members[t] = new int[]{i, j};
+                count[t] = 1;
+                won[t] = new double[]{0.5, 0.5};
+            }
+        }
+
+        double[] totalWins = new double[k];
+        for (int s = 0; s < n; s++)
+            for (int m = 0; m < members[s].length; m++) totalWins[members[s][m]] += won[s][m];
+
+        double[] gamma = new double[k];
+        java.util.Arrays.fill(gamma, 1.0);
+        for (int iter = 0; iter < 1000; iter++) {
+            double[] denom = new double[k];
+            for (int s = 0; s < n; s++) {
+                if (count[s] == 0) continue;
+                double sum = 0;
+                for (int i : members[s]) sum += gamma[i];
+                for (int i : members[s]) denom[i] += count[s] / sum;
+            }
+            double[] next = new double[k];
+            double logMean = 0;
+            for (int i = 0; i < k; i++) {
+                next[i] = denom[i] == 0 ? gamma[i] : totalWins[i] / denom[i];
+                logMean += Math.log(next[i]) / k;
+            }
+            double maxChange = 0;
+            for (int i = 0; i < k; i++) {
+                next[i] = Math.exp(Math.log(next[i]) - logMean);
+                maxChange = Math.max(maxChange, Math.abs(next[i] - gamma[i]) / gamma[i]);
+            }
+            gamma = next;
+            if (maxChange < 1e-10) break;
+        }
+
+        double[] theta = new double[k];
+        for (int i = 0; i < k; i++) theta[i] = Math.log(gamma[i]);
+
+        // Fisher information in theta: each table adds count * (diag(p) - p p') over its members.
+        double[][] info = new double[k][k];
+        for (int s = 0; s < n; s++) {
+            if (count[s] == 0) continue;
+            double sum = 0;
+            for (int i : members[s]) sum += gamma[i];
+            for (int i : members[s]) {
+                double pi = gamma[i] / sum;
+                info[i][i] += count[s] * pi;
+                for (int j : members[s]) info[i][j] -= count[s] * pi * gamma[j] / sum;
+            }
+        }
+        // player 0 is pinned to remove the translation freedom, then re-centred
+        double[][] pinned = new double[k][k];
+        if (k > 1) {
+            double[][] reduced = new double[k - 1][k - 1];
+            for (int i = 1; i < k; i++)
+                for (int j = 1; j < k; j++) reduced[i - 1][j - 1] = info[i][j];
+            double[][] inv = invert(reduced);
+            for (int i = 1; i < k; i++)
+                for (int j = 1; j < k; j++) pinned[i][j] = inv[i - 1][j - 1];
+        }
+        // cov = P * pinned * P with P = I - 11'/k
+        double[][] cov = new double[k][k];
+        double[] rowMean = new double[k];
+        double[] colMean = new double[k];
+        double all = 0;
+        for (int i = 0; i < k; i++)
+            for (int j = 0; j < k; j++) {
+                rowMean[i] += pinned[i][j] / k;
+                colMean[j] += pinned[i][j] / k;
+                all += pinned[i][j] / ((double) k * k);
+            }
+        for (int i = 0; i < k; i++)
+            for (int j = 0; j < k; j++) cov[i][j] = pinned[i][j] - rowMean[i] - colMean[j] + all;
+
+        return new PlackettLuce(theta, cov);
+    }
+
+    private static int[] bits(long mask) {
+        int[] res = new int[Long.bitCount(mask)];
+        for (int i = 0, n = 0; n < res.length; i++) if ((mask & (1L << i)) != 0) res[n++] = i;
+        return res;
+    }
+
+    private static double[][] invert(double[][] a) {
+        int n = a.length;
+        double[][] m = new double[n][2 * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a[i], 0, m[i], 0, n);
+            m[i][n + i] = 1;
+        }
+        for (int c = 0; c < n; c++) {
+            int piv = c;
+            for (int r = c + 1; r < n; r++) if (Math.abs(m[r][c]) > Math.abs(m[piv][c])) piv = r;
+            double[] t = m[c];
+            m[c] = m[piv];
+            m[piv] = t;
+            double d = m[c][c];
+            if (Math.abs(d) < 1e-300) throw new ArithmeticException("singular information matrix");
+            for (int j = 0; j < 2 * n; j++) m[c][j] /= d;
+            for (int r = 0; r < n; r++) {
+                if (r == c) continue;
+                double f = m[r][c];
+                if (f == 0) continue;
+                for (int j = 0; j < 2 * n; j++) m[r][j] -= f * m[c][j];
+            }
+        }
+        double[][] inv = new double[n][n];
+        for (int i = 0; i < n; i++) System.arraycopy(m[i], n, inv[i], 0, n);
+        return inv;
+    }
+
+    // Standard normal helpers for the stopping rule and interval coverage.
+    static double normalCdf(double x) {
+        return 0.5 * (1 + erf(x / Math.sqrt(2)));
+    }
+
+    // Inverse of normalCdf by bisection; plenty for choosing a critical value.
+    static double normalQuantile(double p) {
+        double lo = -40, hi = 40;
+        for (int i = 0; i < 200; i++) {
+            double mid = (lo + hi) / 2;
+            if (normalCdf(mid) < p) lo = mid;
+            else hi = mid;
+        }
+        return (lo + hi) / 2;
+    }
+
+    static double erf(double x) {
+        // Abramowitz-Stegun 7.1.26
+        double t = 1 / (1 + 0.3275911 * Math.abs(x));
+        double y = 1 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t + 0.254829592) * t * Math.exp(-x * x);
+        return x >= 0 ? y : -y;
+    }
+}
@@ -0,0 +1,155 @@
+package perudo.sim;
+
+import perudo.core.DiceCup;
+import perudo.core.Game;
+import perudo.core.RngStreams;
+import perudo.eventlog.EventKinds;
+import perudo.eventlog.EventLogWriter;
+import perudo.players.BotPlayer;
+import perudo.players.Player;
+import perudo.ui.GameUI;
+import perudo.ui.SilentUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public final class Simulation {
+    private final List<StrategySpec> strategies;
+    private final int playersPerMatch;
+    private final int maxDice;
+    private final int threads;
+    private final RngStreams rng;
+    private EventLogWriter eventLog;
+
+    public Simulation(List<StrategySpec> strategies, int playersPerMatch, int maxDice, int threads) {
+        this(strategies, playersPerMatch, maxDice, threads, RngStreams.fromEntropy().seed());
+    }
+
+    public Simulation(List<StrategySpec> strategies, int playersPerMatch, int maxDice, int threads, long seed) {
+        if (strategies == null || strategies.isEmpty()) throw new IllegalArgumentException("at least one strategy required");
+        if (playersPerMatch < 2) throw new IllegalArgumentException("playersPerMatch must be >= 2");
+        if (maxDice < 1) throw new IllegalArgumentException("maxDice must be >= 1");
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        this.strategies = List.copyOf(strategies);
+        this.playersPerMatch = playersPerMatch;
+        this.maxDice = maxDice;
+        this.threads = threads;
+        this.rng = new RngStreams(seed);
+    }
+
+    public long seed() { return rng.seed(); }
+
+    // Logged matches take their ids from the writer, like live games, so runs sharing a directory never collide;
+    // a SIM_ORIGIN record keeps each match's seed and index so it can still be replayed.
+    public void setEventLog(EventLogWriter eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    public SimulationResult run(long matches) {
+        if (matches < 0) throw new IllegalArgumentException("matches must be >= 0");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "perudo-sim");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<Future<Tally>> futures = new ArrayList<>();
+            long chunk = matches / threads;
+            long from = 0;
+            for (int w = 0; w < threads; w++) {
+                long to = (w == threads - 1) ? matches : from + chunk;
+                long lo = from;
+                futures.add(pool.submit(() -> runRange(lo, to)));
+                from = to;
+            }
+
+            Tally total = new Tally(strategies.size());
+            for (Future<Tally> f : futures) {
+                total.merge(f.get());
+            }
+            long elapsed = System.nanoTime() - start;
+            return new SimulationResult(strategies, rng.seed(), matches, total.rounds, total.wins, total.seats, elapsed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("simulation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Tally runRange(long from, long to) {
+        Tally tally = new Tally(strategies.size());
+        int[] seatStrategy = new int[playersPerMatch];
+
+        for (long m = from; m < to; m++) {
+            List<Player> players = new ArrayList<>(playersPerMatch);
+            Game game = setUpMatch(m, players, seatStrategy, SilentUI.INSTANCE);
+            for (int seat = 0; seat < playersPerMatch; seat++) tally.seats[seatStrategy[seat]]++;
+
+            Player winner = game.play();
+            tally.rounds += game.roundsPlayed();
+
+            int winnerSeat = players.indexOf(winner);
+            if (winnerSeat >= 0) tally.wins[seatStrategy[winnerSeat]]++;
+        }
+        return tally;
+    }
+
+    // Re-runs a single match of this simulation's seed; the outcome is identical to the one counted by run().
+    public Player replay(long matchIndex, GameUI ui) {
+        List<Player> players = new ArrayList<>(playersPerMatch);
+        Game game = setUpMatch(matchIndex, players, new int[playersPerMatch], ui);
+        return game.play();
+    }
+
+    private Game setUpMatch(long matchIndex, List<Player> players, int[] seatStrategy, GameUI ui) {
+        for (int seat = 0; seat < playersPerMatch; seat++) {
+            seatStrategy[seat] = (int) ((seat + matchIndex) % strategies.size());
+        }
+        Game game = buildMatch(rng.forMatch(matchIndex), seatStrategy, strategies, maxDice, ui, players);
+        if (eventLog != null) {
+            long matchId = eventLog.nextMatchId();
+            game.setEventLog(eventLog, matchId);
+            long seed = rng.seed();
+            eventLog.append(matchId, 0, EventKinds.SIM_ORIGIN, -1, 0, (int) (seed >>> 32), (int) seed);
+            eventLog.append(matchId, 0, EventKinds.SIM_ORIGIN, -1, 1, (int) (matchIndex >>> 32), (int) matchIndex);
+        }
+        return game;
+    }
+
+    // Seats one bot per entry of seatStrategy (an index into strategies) and adds them to players.
+    static Game buildMatch(RngStreams match, int[] seatStrategy, List<StrategySpec> strategies, int maxDice,
+                           GameUI ui, List<Player> players) {
+        for (int seat = 0; seat < seatStrategy.length; seat++) {
+            players.add(new BotPlayer("Bot" + (seat + 1), new DiceCup(maxDice, match.forCup(seat)),
+                    strategies.get(seatStrategy[seat]).create(match.forBot(seat))));
+        }
+        int startIndex = match.forTable().nextInt(seatStrategy.length);
+        return Game.createHeadless(players, maxDice, startIndex, ui);
+    }
+
+    private static final class Tally {
+        private long rounds;
+        private final long[] wins;
+        private final long[] seats;
+
+        private Tally(int strategies) {
+            this.wins = new long[strategies];
+            this.seats = new long[strategies];
+        }
+
+        private void merge(Tally other) {
+            rounds += other.rounds;
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                seats[i] += other.seats[i];
+            }
+        }
+    }
+}
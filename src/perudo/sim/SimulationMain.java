@@ -0,0 +1,70 @@
+package perudo.sim;
+
+import perudo.ai.ProbabilisticBotStrategy;
+import perudo.ai.SimpleBotStrategy;
+import perudo.ai.cfr.CfrBotStrategy;
+import perudo.ai.cfr.CfrTable;
+import perudo.core.RngStreams;
+import perudo.eventlog.EventLogWriter;
+import perudo.players.Player;
+import perudo.ui.ConsoleUI;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SimulationMain {
+    private SimulationMain() {}
+
+    // args: [matches] [players] [maxDice] [threads] [seed]
+    //   or: replay <seed> <matchIndex> [players] [maxDice]
+    public static void main(String[] args) {
+        List<StrategySpec> strategies = new ArrayList<>(List.of(
+                new StrategySpec("simple", SimpleBotStrategy::new),
+                new StrategySpec("probabilistic", ProbabilisticBotStrategy::new)
+        ));
+
+        // -Dperudo.cfr.table=<file> adds the CFR endgame bot (probabilistic outside solved states)
+        String cfrFile = System.getProperty("perudo.cfr.table");
+        if (cfrFile != null) {
+            CfrTable table = CfrTable.load(Path.of(cfrFile));
+            strategies.add(new StrategySpec("cfr", rnd -> new CfrBotStrategy(rnd, table, new ProbabilisticBotStrategy(rnd))));
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("replay")) {
+            if (args.length < 3) throw new IllegalArgumentException("usage: replay <seed> <matchIndex> [players] [maxDice]");
+            long seed = Long.parseLong(args[1]);
+            long matchIndex = Long.parseLong(args[2]);
+            int players = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+            int maxDice = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+
+            Simulation sim = new Simulation(strategies, players, maxDice, 1, seed);
+            Player winner = sim.replay(matchIndex, new ConsoleUI());
+            System.out.println("Replayed match " + matchIndex + " of seed " + seed + ": winner " + winner.name());
+            return;
+        }
+
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int maxDice = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : RngStreams.fromEntropy().seed();
+
+        Simulation sim = new Simulation(strategies, players, maxDice, threads, seed);
+        new Simulation(strategies, players, maxDice, threads).run(Math.min(matches, 1_000));
+
+        String logDir = System.getProperty("perudo.eventlog.dir");
+        EventLogWriter log = logDir == null ? null : new EventLogWriter(Path.of(logDir));
+        sim.setEventLog(log);
+
+        SimulationResult result;
+        try {
+            result = sim.run(matches);
+        } finally {
+            if (log != null) log.close();
+        }
+        System.out.println("=== PERUDO SIMULATION ===");
+        System.out.println("Players: " + players + ", dice: " + maxDice + ", threads: " + threads);
+        System.out.print(result.report());
+    }
+}
@@ -0,0 +1,62 @@
+package perudo.sim;
+
+import java.util.List;
+
+public final class SimulationResult {
+    private final List<StrategySpec> strategies;
+    private final long seed;
+    private final long matches;
+    private final long rounds;
+    private final long[] wins;
+    private final long[] seats;
+    private final long elapsedNanos;
+
+    SimulationResult(List<StrategySpec> strategies, long seed, long matches, long rounds,
+                     long[] wins, long[] seats, long elapsedNanos) {
+        this.strategies = strategies;
+        this.seed = seed;
+        this.matches = matches;
+        this.rounds = rounds;
+        this.wins = wins;
+        this.seats = seats;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long seed() { return seed; }
+    public long matches() { return matches; }
+    public long rounds() { return rounds; }
+    public long elapsedNanos() { return elapsedNanos; }
+
+    public double matchesPerSecond() {
+        return elapsedNanos == 0 ? 0 : matches * 1e9 / elapsedNanos;
+    }
+
+    public double roundsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rounds * 1e9 / elapsedNanos;
+    }
+
+    public long wins(int strategyIndex) { return wins[strategyIndex]; }
+    public long seats(int strategyIndex) { return seats[strategyIndex]; }
+
+    public double winRate(int strategyIndex) {
+        return matches == 0 ? 0 : (double) wins[strategyIndex] / matches;
+    }
+
+    public double winRatePerSeat(int strategyIndex) {
+        return seats[strategyIndex] == 0 ? 0 : (double) wins[strategyIndex] / seats[strategyIndex];
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Seed: ").append(seed).append(System.lineSeparator());
+        sb.append(String.format("Matches: %d in %.2fs (%.0f matches/s, %.0f matches/min)%n",
+                matches, elapsedNanos / 1e9, matchesPerSecond(), matchesPerSecond() * 60));
+        sb.append(String.format("Rounds: %d (%.0f rounds/s)%n", rounds, roundsPerSecond()));
+        sb.append("Win rates:").append(System.lineSeparator());
+        for (int i = 0; i < strategies.size(); i++) {
+            sb.append(String.format("  %-20s wins=%d (%.2f%% of matches, %.2f%% per seat)%n",
+                    strategies.get(i).name(), wins[i], winRate(i) * 100, winRatePerSeat(i) * 100));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package perudo.sim;
+
+import perudo.ai.BotStrategy;
+
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+public final class StrategySpec {
+    private final String name;
+    private final Function<RandomGenerator, BotStrategy> factory;
+
+    public StrategySpec(String name, Function<RandomGenerator, BotStrategy> factory) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("name cannot be empty");
+        if (factory == null) throw new IllegalArgumentException("factory cannot be null");
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public String name() { return name; }
+
+    public BotStrategy create(RandomGenerator rnd) {
+        return factory.apply(rnd);
+    }
+}
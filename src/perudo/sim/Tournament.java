@@ -0,0 +1,205 @@
+package perudo.sim;
+
+import perudo.core.Game;
+import perudo.core.RngStreams;
+import perudo.players.Player;
+import perudo.ui.SilentUI;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Round-robin tournament: every subset of strategies for each table size plays in every seat rotation
+ * of both seating directions, and the schedule repeats until the ratings separate or the match budget
+ * runs out. Ratings are a Plackett-Luce fit on match winners, one observation per match.
+ */
+public final class Tournament {
+    private final List<StrategySpec> strategies;
+    private final int maxDice;
+    private final int threads;
+    private final RngStreams rng;
+    private final List<int[]> schedule = new ArrayList<>();
+    // strategy mask of each distinct table, and which of them each schedule entry seats
+    private final List<Long> tables = new ArrayList<>();
+    private final List<Integer> scheduleTable = new ArrayList<>();
+
+    public Tournament(List<StrategySpec> strategies, int[] tableSizes, int maxDice, int threads, long seed) {
+        if (strategies == null || strategies.size() < 2) throw new IllegalArgumentException("at least two strategies required");
+        if (strategies.size() > 63) throw new IllegalArgumentException("at most 63 strategies supported");
+        if (maxDice < 1) throw new IllegalArgumentException("maxDice must be >= 1");
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        this.strategies = List.copyOf(strategies);
+        this.maxDice = maxDice;
+        this.threads = threads;
+        this.rng = new RngStreams(seed);
+
+        for (int size : tableSizes) {
+            if (size < 2) throw new IllegalArgumentException("table size must be >= 2");
+            if (size > strategies.size()) continue;
+            addFixtures(new int[size], 0, 0);
+        }
+        if (schedule.isEmpty()) throw new IllegalArgumentException("no table size fits " + strategies.size() + " strategies");
+    }
+
+    public long seed() { return rng.seed(); }
+    public int scheduleLength() { return schedule.size(); }
+
+    // Every combination of strategies in all cyclic seat rotations, mirrored too so no strategy always
+    // acts right after the same neighbour. With two seats the mirror is just the other rotation.
+    private void addFixtures(int[] subset, int pos, int next) {
+        if (pos == subset.length) {
+            long mask = 0;
+            for (int i : subset) mask |= 1L << i;
+            int table = tables.size();
+            tables.add(mask);
+            int n = subset.length;
+            for (int dir = 0; dir < (n > 2 ? 2 : 1); dir++) {
+                for (int r = 0; r < n; r++) {
+                    int[] seats = new int[n];
+                    for (int s = 0; s < n; s++) seats[s] = subset[dir == 0 ? (s + r) % n : (r - s + n) % n];
+                    schedule.add(seats);
+                    scheduleTable.add(table);
+                }
+            }
+            return;
+        }
+        for (int i = next; i < strategies.size(); i++) {
+            subset[pos] = i;
+            addFixtures(subset, pos + 1, i + 1);
+        }
+    }
+
+    /**
+     * Plays batches of matches until every pair of neighbouring strategies in the ranking is separated,
+     * or maxMatches have been played. Each batch is a whole number of schedule passes so every strategy
+     * gets the same seats. The ranking is checked after every batch, so the two-sided error rate that z
+     * stands for is split evenly over all planned looks (Bonferroni) and each look uses the stricter
+     * {@link #perLookZ} instead of z itself.
+     */
+    public TournamentResult run(long maxMatches, int passesPerBatch, double z) {
+        if (maxMatches < schedule.size()) throw new IllegalArgumentException("maxMatches must cover one pass of " + schedule.size() + " fixtures");
+        if (passesPerBatch < 1) throw new IllegalArgumentException("passesPerBatch must be >= 1");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "perudo-tournament");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long start = System.nanoTime();
+        Tally total = new Tally(strategies.size(), tables.size());
+        long played = 0;
+        PlackettLuce ratings;
+        boolean separated;
+        long batch = (long) passesPerBatch * schedule.size();
+        double lookZ = perLookZ(z, (maxMatches / schedule.size() + passesPerBatch - 1) / passesPerBatch);
+        try {
+            do {
+                long to = Math.min(maxMatches, played + batch);
+                to -= (to - played) % schedule.size();
+                if (to == played) break;
+
+                List<Future<Tally>> futures = new ArrayList<>();
+                long chunk = (to - played) / threads;
+                long from = played;
+                for (int w = 0; w < threads; w++) {
+                    long hi = (w == threads - 1) ? to : from + chunk;
+                    long lo = from;
+                    futures.add(pool.submit(() -> runRange(lo, hi)));
+                    from = hi;
+                }
+                for (Future<Tally> f : futures) total.merge(f.get());
+                played = to;
+
+                ratings = fit(total);
+                separated = separated(ratings, lookZ);
+            } while (!separated && played < maxMatches);
+            ratings = fit(total);
+            separated = separated(ratings, lookZ);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("tournament failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new TournamentResult(strategies, rng.seed(), played, maxMatches, separated, z, lookZ,
+                total.wins, total.seats, total.beats, ratings, System.nanoTime() - start);
+    }
+
+    private Tally runRange(long from, long to) {
+        Tally tally = new Tally(strategies.size(), tables.size());
+        for (long m = from; m < to; m++) {
+            int fixture = (int) (m % schedule.size());
+            int[] seats = schedule.get(fixture);
+            List<Player> players = new ArrayList<>(seats.length);
+            Game game = Simulation.buildMatch(rng.forMatch(m), seats, strategies, maxDice, SilentUI.INSTANCE, players);
+            Player winner = game.play();
+            for (int s : seats) tally.seats[s]++;
+            int table = scheduleTable.get(fixture);
+            tally.tableMatches[table]++;
+
+            int winnerSeat = players.indexOf(winner);
+            if (winnerSeat < 0) continue;
+            int w = seats[winnerSeat];
+            tally.wins[w]++;
+            tally.tableWins[table][w]++;
+            for (int s : seats) if (s != w) tally.beats[w][s]++;
+        }
+        return tally;
+    }
+
+    private PlackettLuce fit(Tally tally) {
+        long[] masks = new long[tables.size()];
+        for (int t = 0; t < masks.length; t++) masks[t] = tables.get(t);
+        return PlackettLuce.fit(strategies.size(), masks, tally.tableMatches, tally.tableWins);
+    }
+
+    // Critical value for one of `looks` interim checks so that all of them together keep the error rate of z.
+    static double perLookZ(double z, long looks) {
+        if (looks <= 1) return z;
+        double alpha = 2 * (1 - PlackettLuce.normalCdf(z));
+        return PlackettLuce.normalQuantile(1 - alpha / (2.0 * looks));
+    }
+
+    private static boolean separated(PlackettLuce ratings, double z) {
+        Integer[] order = TournamentResult.ranking(ratings);
+        for (int i = 1; i < order.length; i++) {
+            int a = order[i - 1], b = order[i];
+            if (ratings.elo(a) - ratings.elo(b) <= z * ratings.diffStdErr(a, b)) return false;
+        }
+        return true;
+    }
+
+    private static final class Tally {
+        private final long[] wins;
+        private final long[] seats;
+        private final long[][] beats;
+        private final long[] tableMatches;
+        private final long[][] tableWins;
+
+        private Tally(int strategies, int tables) {
+            this.wins = new long[strategies];
+            this.seats = new long[strategies];
+            this.beats = new long[strategies][strategies];
+            this.tableMatches = new long[tables];
+            this.tableWins = new long[tables][strategies];
+        }
+
+        private void merge(Tally other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                seats[i] += other.seats[i];
+                for (int j = 0; j < wins.length; j++) beats[i][j] += other.beats[i][j];
+            }
+            for (int t = 0; t < tableMatches.length; t++) {
+                tableMatches[t] += other.tableMatches[t];
+                for (int i = 0; i < wins.length; i++) tableWins[t][i] += other.tableWins[t][i];
+            }
+        }
+    }
+}
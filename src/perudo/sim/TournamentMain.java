@@ -0,0 +1,52 @@
+package perudo.sim;
+
+import perudo.ai.IsmctsBotStrategy;
+import perudo.ai.ProbabilisticBotStrategy;
+import perudo.ai.SimpleBotStrategy;
+import perudo.ai.cfr.CfrBotStrategy;
+import perudo.ai.cfr.CfrTable;
+import perudo.core.RngStreams;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TournamentMain {
+    private TournamentMain() {}
+
+    // args: [maxMatches] [maxDice] [threads] [seed] [z] [tableSizes, e.g. 2,3,4]
+    public static void main(String[] args) {
+        List<StrategySpec> strategies = new ArrayList<>(List.of(
+                new StrategySpec("simple", SimpleBotStrategy::new),
+                new StrategySpec("probabilistic", ProbabilisticBotStrategy::new),
+                // single-threaded with a small iteration budget so whole matches stay cheap
+                new StrategySpec("ismcts", rnd -> new IsmctsBotStrategy(rnd, 200, 0, 1))
+        ));
+        String cfrFile = System.getProperty("perudo.cfr.table");
+        if (cfrFile != null) {
+            CfrTable table = CfrTable.load(Path.of(cfrFile));
+            strategies.add(new StrategySpec("cfr", rnd -> new CfrBotStrategy(rnd, table, new ProbabilisticBotStrategy(rnd))));
+        }
+
+        long maxMatches = args.length > 0 ? Long.parseLong(args[0]) : 20_000;
+        int maxDice = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : RngStreams.fromEntropy().seed();
+        double z = args.length > 4 ? Double.parseDouble(args[4]) : 1.96;
+        int[] tableSizes = {2, 3, 4};
+        if (args.length > 5) {
+            String[] parts = args[5].split(",");
+            tableSizes = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) tableSizes[i] = Integer.parseInt(parts[i].trim());
+        }
+
+        Tournament tournament = new Tournament(strategies, tableSizes, maxDice, threads, seed);
+        int passesPerBatch = Math.max(1, 200 / tournament.scheduleLength());
+        TournamentResult result = tournament.run(maxMatches, passesPerBatch, z);
+
+        System.out.println("=== PERUDO TOURNAMENT ===");
+        System.out.println("Strategies: " + strategies.size() + ", dice: " + maxDice + ", threads: " + threads
+                + ", fixtures per pass: " + tournament.scheduleLength());
+        System.out.print(result.report());
+    }
+}
@@ -0,0 +1,88 @@
+package perudo.sim;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public final class TournamentResult {
+    private final List<StrategySpec> strategies;
+    private final long seed;
+    private final long matches;
+    private final long maxMatches;
+    private final boolean separated;
+    private final double z;
+    private final double lookZ;
+    private final long[] wins;
+    private final long[] seats;
+    private final long[][] beats;
+    private final PlackettLuce ratings;
+    private final long elapsedNanos;
+
+    TournamentResult(List<StrategySpec> strategies, long seed, long matches, long maxMatches, boolean separated,
+                     double z, double lookZ, long[] wins, long[] seats, long[][] beats, PlackettLuce ratings, long elapsedNanos) {
+        this.strategies = strategies;
+        this.seed = seed;
+        this.matches = matches;
+        this.maxMatches = maxMatches;
+        this.separated = separated;
+        this.z = z;
+        this.lookZ = lookZ;
+        this.wins = wins;
+        this.seats = seats;
+        this.beats = beats;
+        this.ratings = ratings;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long seed() { return seed; }
+    public long matches() { return matches; }
+    public boolean separated() { return separated; }
+    public long elapsedNanos() { return elapsedNanos; }
+
+    public double elo(int strategyIndex) { return ratings.elo(strategyIndex); }
+    public double eloStdErr(int strategyIndex) { return ratings.eloStdErr(strategyIndex); }
+    public long beats(int winner, int loser) { return beats[winner][loser]; }
+
+    public double winRatePerSeat(int strategyIndex) {
+        return seats[strategyIndex] == 0 ? 0 : (double) wins[strategyIndex] / seats[strategyIndex];
+    }
+
+    static Integer[] ranking(PlackettLuce ratings) {
+        Integer[] order = new Integer[ratings.theta.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> ratings.theta[i]).reversed());
+        return order;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Seed: ").append(seed).append(System.lineSeparator());
+        sb.append(String.format("Matches: %d of max %d in %.2fs (%s at z=%.2f, %.2f per look)%n", matches, maxMatches,
+                elapsedNanos / 1e9, separated ? "ranking separated" : "budget exhausted", z, lookZ));
+        sb.append("Ratings (Elo, ").append(String.format("%.0f%%", confidence() * 100)).append(" interval):")
+                .append(System.lineSeparator());
+        for (int i : ranking(ratings)) {
+            double half = z * eloStdErr(i);
+            sb.append(String.format("  %-20s %7.1f [%7.1f, %7.1f]  wins=%d seats=%d (%.2f%% per seat)%n",
+                    strategies.get(i).name(), elo(i), elo(i) - half, elo(i) + half,
+                    wins[i], seats[i], winRatePerSeat(i) * 100));
+        }
+        sb.append("Head to head (row finished ahead of column):").append(System.lineSeparator());
+        sb.append(String.format("  %-20s", ""));
+        for (StrategySpec s : strategies) sb.append(String.format(" %12s", s.name()));
+        sb.append(System.lineSeparator());
+        for (int i = 0; i < strategies.size(); i++) {
+            sb.append(String.format("  %-20s", strategies.get(i).name()));
+            for (int j = 0; j < strategies.size(); j++) {
+                sb.append(i == j ? String.format(" %12s", "-") : String.format(" %12d", beats[i][j]));
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    // Two-sided coverage of +-z standard errors.
+    private double confidence() {
+        return PlackettLuce.erf(z / Math.sqrt(2));
+    }
+}
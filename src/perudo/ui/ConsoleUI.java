@@ -2,17 +2,20 @@ package perudo.ui;
 
 import java.util.Scanner;
 
-public final class ConsoleUI {
+public final class ConsoleUI implements GameUI {
     private final Scanner sc = new Scanner(System.in);
 
+    @Override
     public void println(String s) {
         System.out.println(s);
     }
 
+    @Override
     public String readLine() {
         return sc.nextLine();
     }
 
+    @Override
     public int readInt(String prompt, int min, int max) {
         while (true) {
             System.out.print(prompt);
@@ -30,6 +33,7 @@ public final class ConsoleUI {
         }
     }
 
+    @Override
     public String readNonEmpty(String prompt) {
         while (true) {
             System.out.print(prompt);
@@ -0,0 +1,15 @@
+package perudo.ui;
+
+public interface GameUI {
+    void println(String s);
+
+    String readLine();
+
+    int readInt(String prompt, int min, int max);
+
+    String readNonEmpty(String prompt);
+
+    default boolean isSilent() {
+        return false;
+    }
+}
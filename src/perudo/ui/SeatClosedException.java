@@ -0,0 +1,8 @@
+package perudo.ui;
+
+// Thrown by a GameUI whose player has gone away; nothing more can be read from it.
+public final class SeatClosedException extends IllegalStateException {
+    public SeatClosedException() {
+        super("seat closed");
+    }
+}
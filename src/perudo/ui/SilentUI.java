@@ -0,0 +1,30 @@
+package perudo.ui;
+
+public final class SilentUI implements GameUI {
+    public static final SilentUI INSTANCE = new SilentUI();
+
+    private SilentUI() {}
+
+    @Override
+    public void println(String s) {}
+
+    @Override
+    public boolean isSilent() {
+        return true;
+    }
+
+    @Override
+    public String readLine() {
+        throw new UnsupportedOperationException("SilentUI has no input");
+    }
+
+    @Override
+    public int readInt(String prompt, int min, int max) {
+        throw new UnsupportedOperationException("SilentUI has no input");
+    }
+
+    @Override
+    public String readNonEmpty(String prompt) {
+        throw new UnsupportedOperationException("SilentUI has no input");
+    }
+}
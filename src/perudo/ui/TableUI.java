@@ -0,0 +1,37 @@
+package perudo.ui;
+
+import java.util.List;
+
+// Table-wide output sent to every seat; input always comes from a seat's own UI.
+public final class TableUI implements GameUI {
+    private final List<GameUI> seats;
+
+    public TableUI(List<GameUI> seats) {
+        this.seats = List.copyOf(seats);
+    }
+
+    @Override
+    public void println(String s) {
+        for (GameUI seat : seats) seat.println(s);
+    }
+
+    @Override
+    public boolean isSilent() {
+        return seats.isEmpty();
+    }
+
+    @Override
+    public String readLine() {
+        throw new UnsupportedOperationException("TableUI has no input, read from a seat");
+    }
+
+    @Override
+    public int readInt(String prompt, int min, int max) {
+        throw new UnsupportedOperationException("TableUI has no input, read from a seat");
+    }
+
+    @Override
+    public String readNonEmpty(String prompt) {
+        throw new UnsupportedOperationException("TableUI has no input, read from a seat");
+    }
+}
@@ -0,0 +1,72 @@
+package perudo.ai;
+
+import org.junit.jupiter.api.Test;
+import perudo.core.*;
+import perudo.players.BotPlayer;
+import perudo.players.Player;
+import perudo.ui.SilentUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbabilisticBotStrategyTest {
+    private static final int TRIALS = 200_000;
+
+    @Test
+    void exactValueMatchesRuleEngineWhenBidderCanGain() {
+        checkExact(new int[]{3, 5, 4}, 2);
+    }
+
+    @Test
+    void exactValueMatchesRuleEngineWhenBidderIsFull() {
+        checkExact(new int[]{3, 4, 5}, 2);
+    }
+
+    @Test
+    void exactNeverGainsTheCallerADie() {
+        // the caller is short of dice, which used to count as a possible gain
+        checkExact(new int[]{1, 5, 5}, 1);
+    }
+
+    // Seat 0 calls EXACT on seat 2's bid; the other cups are re-rolled every trial and scored as the strategy does.
+    private static void checkExact(int[] dice, int quantityOffset) {
+        RngStreams rng = new RngStreams(7);
+        List<Player> table = new ArrayList<>();
+        for (int seat = 0; seat < dice.length; seat++) {
+            Player p = new BotPlayer("Bot" + seat, new DiceCup(5, rng.forCup(seat)), new SimpleBotStrategy(rng.forBot(seat)));
+            while (p.diceCount() > dice[seat]) p.loseDie();
+            p.roll();
+            table.add(p);
+        }
+        RoundContext ctx = new RoundContext(table);
+        ctx.bind();
+        Player self = table.get(0);
+        int face = 4;
+        int quantity = self.cup().countMatches(face) + quantityOffset;
+        ctx.setBid(Bid.of(quantity, face), 2);
+
+        ProbabilisticBotStrategy strategy = new ProbabilisticBotStrategy(new SplittableRandom(1));
+        double predicted = strategy.exactValue(self, ctx);
+
+        RuleEngine rules = new RuleEngine(5);
+        double opponentLoss = 1.0 / (table.size() - 1);
+        double sum = 0;
+        for (int t = 0; t < TRIALS; t++) {
+            for (int seat = 1; seat < table.size(); seat++) table.get(seat).roll();
+            ctx.invalidateDiceTotals();
+            rules.resolveExact(ctx, 0, SilentUI.INSTANCE);
+            for (int seat = 0; seat < table.size(); seat++) {
+                Player p = table.get(seat);
+                int change = p.diceCount() - dice[seat];
+                sum += seat == 0 ? change : -change * opponentLoss;
+                while (p.diceCount() < dice[seat]) p.gainDieUpToMax();
+                while (p.diceCount() > dice[seat]) p.loseDie();
+            }
+        }
+        double observed = sum / TRIALS;
+        assertEquals(observed, predicted, 0.01, "EXACT value");
+    }
+}
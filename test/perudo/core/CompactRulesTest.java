@@ -0,0 +1,96 @@
+package perudo.core;
+
+import org.junit.jupiter.api.Test;
+import perudo.ai.SimpleBotStrategy;
+import perudo.players.BotPlayer;
+import perudo.players.Player;
+import perudo.ui.SilentUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRulesTest {
+    private static final int TABLES = 20_000;
+
+    @Test
+    void liarMatchesRuleEngine() {
+        compareWithRuleEngine(false);
+    }
+
+    @Test
+    void exactMatchesRuleEngine() {
+        compareWithRuleEngine(true);
+    }
+
+    @Test
+    void exactGainCapsAtBiddersOwnCup() {
+        CompactState s = new CompactState(2, 5);
+        s.setMaxDice(0, 2);
+        s.newRound(new Random(1));
+        int face = s.face(0, 0);
+        s.bid(Bid.of(s.countMatchesTotal(face), face).rank(), 0);
+        assertTrue(CompactRules.resolveExact(s, 1));
+        assertEquals(2, s.dice(0));
+    }
+
+    @Test
+    void lostDieLeavesEmptySlot() {
+        CompactState s = new CompactState(3, 4);
+        s.newRound(new Random(2));
+        int face = s.face(1, 3);
+        int before = s.faceTotals[face];
+        s.setDice(1, 3);
+        assertEquals(0, s.face(1, 3));
+        assertEquals(before - 1, s.faceTotals[face]);
+        assertEquals(0, s.faceTotals[0]);
+    }
+
+    private static void compareWithRuleEngine(boolean exact) {
+        Random rnd = new Random(20240607L);
+        RuleEngine rules = new RuleEngine(5);
+        for (int t = 0; t < TABLES; t++) {
+            RngStreams rng = new RngStreams(rnd.nextLong());
+            int n = 2 + rnd.nextInt(5);
+            List<Player> table = new ArrayList<>(n);
+            for (int seat = 0; seat < n; seat++) {
+                Player p = new BotPlayer("Bot" + seat, new DiceCup(1 + rnd.nextInt(5), rng.forCup(seat)),
+                        new SimpleBotStrategy(rng.forBot(seat)));
+                int lose = rnd.nextInt(p.cup().maxDice() + 1);
+                for (int i = 0; i < lose; i++) p.loseDie();
+                table.add(p);
+            }
+            List<Integer> alive = new ArrayList<>();
+            for (int seat = 0; seat < n; seat++) if (table.get(seat).isAlive()) alive.add(seat);
+            if (alive.size() < 2) continue;
+            for (Player p : table) if (p.isAlive()) p.roll();
+
+            RoundContext ctx = new RoundContext(table);
+            ctx.bind();
+            int bidder = alive.get(rnd.nextInt(alive.size()));
+            int caller = ctx.nextAliveIndex(bidder);
+            int face = 1 + rnd.nextInt(6);
+            // around the actual count so both outcomes come up
+            int quantity = Math.max(1, ctx.countMatchesTotal(face) + rnd.nextInt(3) - 1);
+            ctx.setBid(Bid.of(quantity, face), bidder);
+
+            CompactState s = CompactState.of(ctx);
+            if (exact) {
+                rules.resolveExact(ctx, caller, SilentUI.INSTANCE);
+                CompactRules.resolveExact(s, caller);
+            } else {
+                rules.resolveLiar(ctx, caller, SilentUI.INSTANCE);
+                CompactRules.resolveLiar(s, caller);
+            }
+
+            for (int seat = 0; seat < n; seat++) {
+                assertEquals(table.get(seat).diceCount(), s.dice(seat), "table " + t + " seat " + seat);
+                assertEquals(table.get(seat).isAlive(), s.isAlive(seat), "table " + t + " seat " + seat);
+            }
+            assertEquals(ctx.nextStarterIndex(), s.nextStarter(), "table " + t);
+            assertEquals(ctx.totalDiceInPlay(), s.totalDice(), "table " + t);
+        }
+    }
+}